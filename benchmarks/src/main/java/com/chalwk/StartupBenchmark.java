@@ -0,0 +1,117 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk;
+
+import com.chalwk.benchmarks.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the packaged application to its first painted script list, with and
+ * without the class-data sharing archive the build produces. Each invocation starts a fresh
+ * JVM against a local catalog in a throwaway home directory, so no network is involved.
+ * <p>
+ * Needs a display, and {@code mvn package} run in the project root first; the application
+ * is looked up in {@code ../target} unless {@code -Dhsp.app.dir} says otherwise.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String REPORT_PREFIX = "first-list-paint-ms=";
+
+    @Param({"none", "appcds"})
+    private String archive;
+
+    @Param({"1000", "100000"})
+    private int catalogSize;
+
+    private List<String> command;
+
+    @Setup
+    public void setUp() throws IOException {
+        Path appDirectory = Paths.get(System.getProperty("hsp.app.dir", "../target")).toAbsolutePath();
+        Path jar = appDirectory.resolve("hsp-script-browser-1.0.0.jar");
+        Path sharedArchive = appDirectory.resolve("hsp-script-browser-1.0.0.jsa");
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Application jar not found: " + jar + " (run mvn package first)");
+        }
+
+        // A home directory whose only source is a local checkout of the synthetic catalog
+        Path home = Files.createTempDirectory("hsp-startup");
+        Path checkout = Files.createDirectories(home.resolve("checkout"));
+        Files.write(checkout.resolve("metadata.json"), SyntheticData.metadataJson(
+                SyntheticData.catalog(catalogSize, 42)).getBytes(StandardCharsets.UTF_8));
+        Path dataDirectory = Files.createDirectories(home.resolve(".hsp-script-browser"));
+        Files.write(dataDirectory.resolve("sources.properties"), ("sources=bench\n"
+                + "source.bench=" + checkout.toString().replace("\\", "\\\\") + "\n").getBytes(StandardCharsets.UTF_8));
+
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (archive.equals("appcds")) {
+            if (!Files.isRegularFile(sharedArchive)) {
+                throw new IllegalStateException("Class-data archive not found: " + sharedArchive);
+            }
+            command.add("-XX:SharedArchiveFile=" + sharedArchive);
+        }
+        command.add("-Duser.home=" + home);
+        command.add("-Dhsp.startup.exitAfterFirstPaint=true");
+        command.add("-jar");
+        command.add(jar.toString());
+    }
+
+    /**
+     * @return the application's own launch-to-first-paint time in milliseconds, which also
+     * counts the part of JVM startup before this process could observe it
+     */
+    @Benchmark
+    public long firstListPaint() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(REPORT_PREFIX)) {
+                    return Long.parseLong(line.substring(REPORT_PREFIX.length()).trim());
+                }
+                output.append(line).append('\n');
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+        throw new IllegalStateException("The application exited before painting its list:\n" + output);
+    }
+}
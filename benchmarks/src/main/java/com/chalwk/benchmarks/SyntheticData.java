@@ -0,0 +1,132 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.benchmarks;
+
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic catalogs and script bodies shaped like the real HALO SCRIPT PROJECTS data,
+ * so every benchmark run measures the same input.
+ */
+public final class SyntheticData {
+
+    private static final String[] WORDS = {
+            "team", "balance", "vote", "map", "kill", "spree", "announcer", "rank", "stats", "zombies",
+            "capture", "flag", "race", "vehicle", "spawn", "weapon", "grenade", "camo", "overshield", "chat",
+            "command", "admin", "logger", "anti", "cheat", "ping", "kick", "ban", "mute", "welcome",
+            "message", "timer", "lobby", "infection", "sniper", "rocket", "melee", "score", "limit", "custom"
+    };
+
+    private static final String[] LUA_LINES = {
+            "api_version = \"1.12.0.0\"",
+            "function OnScriptLoad()",
+            "    register_callback(cb['EVENT_JOIN'], 'OnJoin')",
+            "    register_callback(cb['EVENT_DIE'], 'OnDeath')",
+            "    register_callback(cb['EVENT_TICK'], 'OnTick')",
+            "end",
+            "local function OnJoin(id)",
+            "    local name = get_var(id, '$name')",
+            "    say_all(name .. ' has joined the game')",
+            "    players[id] = { kills = 0, deaths = 0, streak = 0 }",
+            "    execute_command('sv_map_next')",
+            "    rprint(id, 'Welcome to the server')",
+            "    if player_present(id) and player_alive(id) then",
+            "        timer(1000, 'CheckPlayer', id)",
+            "    end",
+            "-- Configuration starts here --"
+    };
+
+    private SyntheticData() {
+    }
+
+    public static List<ScriptMetadata> catalog(int size, long seed) {
+        Random random = new Random(seed);
+        ScriptCategory[] categories = ScriptCategory.values();
+        List<ScriptMetadata> scripts = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++) {
+            ScriptCategory category = categories[random.nextInt(categories.length)];
+            String title = capitalize(words(random, 2 + random.nextInt(3), " ")) + " " + i;
+            String filename = words(random, 2, "_") + "_" + i + ".lua";
+            String shortDescription = capitalize(words(random, 6 + random.nextInt(6), " "));
+            String description = capitalize(words(random, 10 + random.nextInt(20), " ")) + ".";
+            scripts.add(new ScriptMetadata(category, title, shortDescription, description, filename));
+        }
+        return scripts;
+    }
+
+    /**
+     * @return {@code scripts} in the metadata.json layout: category folder to filename to record
+     */
+    public static String metadataJson(List<ScriptMetadata> scripts) {
+        StringBuilder json = new StringBuilder("{\"version\":1");
+        for (ScriptCategory category : ScriptCategory.values()) {
+            json.append(",\"").append(category.getFolderName()).append("\":{");
+            boolean first = true;
+            for (ScriptMetadata script : scripts) {
+                if (script.getCategory() != category) continue;
+                if (!first) json.append(',');
+                first = false;
+                json.append('"').append(script.getFilenameWithoutExtension()).append("\":{")
+                        .append("\"title\":\"").append(script.getTitle()).append("\",")
+                        .append("\"shortDescription\":\"").append(script.getShortDescription()).append("\",")
+                        .append("\"description\":\"").append(script.getDescription()).append("\",")
+                        .append("\"filename\":\"").append(script.getFilename()).append("\"}");
+            }
+            json.append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * @return Lua source of roughly {@code length} bytes
+     */
+    public static byte[] scriptBody(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder body = new StringBuilder(length + 64);
+        while (body.length() < length) {
+            body.append(LUA_LINES[random.nextInt(LUA_LINES.length)]).append('\n');
+        }
+        body.setLength(length);
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return {@code count} query terms drawn from the catalog vocabulary, some of them partial words
+     */
+    public static String[] queryTerms(int count, long seed) {
+        Random random = new Random(seed);
+        String[] terms = new String[count];
+        for (int i = 0; i < count; i++) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            terms[i] = random.nextBoolean() ? word : word.substring(0, 1 + random.nextInt(word.length()));
+        }
+        return terms;
+    }
+
+    private static String words(Random random, int count, String separator) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) text.append(separator);
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private static String capitalize(String text) {
+        return Character.toUpperCase(text.charAt(0)) + text.substring(1);
+    }
+}
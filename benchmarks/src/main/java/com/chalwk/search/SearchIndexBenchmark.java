@@ -0,0 +1,197 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import com.chalwk.benchmarks.SyntheticData;
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Relevance scoring and typo-tolerant matching of {@link SearchIndex}, plus full queries with
+ * and without typos, over synthetic catalogs. The per-document benchmarks sample {@link #SAMPLES}
+ * random (document, term) pairs per invocation, so the catalog size shows up as cache misses.
+ * A query ranks only the first page of its results; {@link #searchAllPages} reads them all.
+ * <p>
+ * The {@code scan} benchmarks are the baseline: the same matching done by testing every
+ * field of every script, with no index.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SearchIndexBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private List<ScriptMetadata> catalog;
+    private SearchIndex index;
+    private int[] docs;
+    private String[] terms;
+    private String[] texts;
+    private String[] queries;
+    private String[] misspelledQueries;
+    private LevenshteinAutomaton[] automata;
+    private int query;
+
+    @Setup
+    public void setUp() {
+        catalog = SyntheticData.catalog(catalogSize, 42);
+        index = SearchIndex.build(catalog);
+
+        Random random = new Random(7);
+        docs = new int[SAMPLES];
+        texts = new String[SAMPLES];
+        terms = SyntheticData.queryTerms(SAMPLES, 11);
+        automata = new LevenshteinAutomaton[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            automata[i] = new LevenshteinAutomaton(terms[i], index.allowedEdits(terms[i]));
+            docs[i] = random.nextInt(catalogSize);
+            texts[i] = SearchIndex.normalize(catalog.get(docs[i]).getDescription());
+        }
+
+        String[] words = SyntheticData.queryTerms(64, 13);
+        queries = new String[32];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = i % 2 == 0 ? words[i] : words[i] + " " + words[i + 32];
+        }
+
+        // One dropped or swapped letter per word long enough to allow it, like "captur flga"
+        misspelledQueries = new String[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            StringBuilder misspelled = new StringBuilder();
+            for (String word : queries[i].split(" ")) {
+                if (misspelled.length() > 0) misspelled.append(' ');
+                if (index.allowedEdits(word) == 0) {
+                    misspelled.append(word);
+                    continue;
+                }
+                int at = random.nextInt(word.length());
+                if (random.nextBoolean() || at + 1 >= word.length()) {
+                    misspelled.append(word, 0, at).append(word, at + 1, word.length());
+                } else {
+                    misspelled.append(word, 0, at).append(word.charAt(at + 1)).append(word.charAt(at))
+                            .append(word, at + 2, word.length());
+                }
+            }
+            misspelledQueries[i] = misspelled.toString();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void calculateRelevance(Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) {
+            blackhole.consume(index.calculateRelevance(docs[i], terms[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void scanMatchesTerm(Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) {
+            blackhole.consume(scanMatches(catalog.get(docs[i]), terms[i], automaton(terms[i])));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public void automatonMatch(Blackhole blackhole) {
+        for (int i = 0; i < SAMPLES; i++) {
+            blackhole.consume(automata[i].matches(texts[i]));
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ScriptMetadata> search() {
+        query = (query + 1) % queries.length;
+        return index.search(queries[query], ScriptCategory.UTILITY);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ScriptMetadata> searchMisspelled() {
+        query = (query + 1) % misspelledQueries.length;
+        return index.search(misspelledQueries[query], ScriptCategory.UTILITY);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ScriptMetadata> scanSearch() {
+        query = (query + 1) % queries.length;
+        String[] queryTerms = SearchIndex.parseQuery(queries[query]);
+        LevenshteinAutomaton[] queryAutomata = new LevenshteinAutomaton[queryTerms.length];
+        for (int i = 0; i < queryTerms.length; i++) {
+            queryAutomata[i] = automaton(queryTerms[i]);
+        }
+
+        List<ScriptMetadata> matches = new ArrayList<>();
+        scripts:
+        for (ScriptMetadata script : catalog) {
+            if (script.getCategory() != ScriptCategory.UTILITY) continue;
+            for (int i = 0; i < queryTerms.length; i++) {
+                if (!scanMatches(script, queryTerms[i], queryAutomata[i])) continue scripts;
+            }
+            matches.add(script);
+        }
+        return matches;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public ScriptMetadata searchAllPages() {
+        query = (query + 1) % queries.length;
+        List<ScriptMetadata> results = index.search(queries[query], ScriptCategory.UTILITY);
+        return results.isEmpty() ? null : results.get(results.size() - 1);
+    }
+
+    private LevenshteinAutomaton automaton(String term) {
+        int edits = index.allowedEdits(term);
+        return edits > 0 ? new LevenshteinAutomaton(term, edits) : null;
+    }
+
+    /**
+     * Whether a field of {@code script} contains {@code term}, or its title or filename
+     * contains it within the allowed edits when {@code automaton} is given: what the index
+     * answers from its vocabulary.
+     */
+    private static boolean scanMatches(ScriptMetadata script, String term, LevenshteinAutomaton automaton) {
+        String[] fields = {script.getSearchTitle(), script.getSearchFilename(), script.getSearchDescription(),
+                script.getSearchShortDescription(), script.getCategory().getSearchName()};
+        for (String field : fields) {
+            if (field.contains(term)) return true;
+        }
+        return automaton != null
+                && (automaton.matches(script.getSearchTitle()) || automaton.matches(script.getSearchFilename()));
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.benchmarks.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The download copy loop ({@link ScriptService#copy}) writing a synthetic script body to a
+ * file, next to a plain {@link InputStream#transferTo} stream copy as the baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DownloadCopyBenchmark {
+
+    @Param({"4096", "65536", "1048576"})
+    private int bodySize;
+
+    private byte[] body;
+    private Path target;
+    private long progressCalls;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        body = SyntheticData.scriptBody(bodySize, 42);
+        target = Files.createTempFile("download-copy", ".lua");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(target);
+    }
+
+    @Benchmark
+    public long channelCopy() throws IOException {
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ScriptService.copy(Channels.newChannel(new ByteArrayInputStream(body)), out, () -> progressCalls++);
+            return out.position();
+        }
+    }
+
+    @Benchmark
+    public long streamCopy() throws IOException {
+        try (InputStream in = new ByteArrayInputStream(body);
+             OutputStream out = Files.newOutputStream(target, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return in.transferTo(out);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.benchmarks.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a whole metadata.json, held as UTF-8 bytes as if read from the cache file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class MetadataParserBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int catalogSize;
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() {
+        json = SyntheticData.metadataJson(SyntheticData.catalog(catalogSize, 42)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public int parse(Blackhole blackhole) {
+        return MetadataStreamParser.parse(
+                new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), blackhole::consume);
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.ui;
+
+import com.chalwk.benchmarks.SyntheticData;
+import com.chalwk.model.ScriptMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paints a screenful of script rows the way the list does while scrolling, through a
+ * {@link CellRendererPane}. Run with {@code -prof gc} to see the allocation rate per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Benchmark)
+public class ScriptListRendererBenchmark {
+
+    private static final int ROWS = 64;
+    private static final int WIDTH = 480;
+
+    private JList<ScriptMetadata> list;
+    private ListCellRenderer<? super ScriptMetadata> renderer;
+    private CellRendererPane rendererPane;
+    private BufferedImage image;
+    private Graphics graphics;
+    private int rowHeight;
+    private int firstRow;
+
+    @Setup
+    public void setUp() {
+        List<ScriptMetadata> catalog = SyntheticData.catalog(10000, 42);
+        list = new JList<>(catalog.toArray(new ScriptMetadata[0]));
+        list.setCellRenderer(new ScriptListRenderer());
+        list.setPrototypeCellValue(catalog.get(0));
+        list.setSize(WIDTH, 10000 * list.getFixedCellHeight());
+        list.setSelectedIndex(3);
+
+        renderer = list.getCellRenderer();
+        rowHeight = list.getFixedCellHeight();
+        rendererPane = new CellRendererPane();
+        new JPanel().add(rendererPane);
+        image = new BufferedImage(WIDTH, rowHeight, BufferedImage.TYPE_INT_RGB);
+        graphics = image.getGraphics();
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void paintRows() {
+        // Scroll by one screen per invocation, wrapping around the catalog
+        firstRow = (firstRow + ROWS) % (list.getModel().getSize() - ROWS);
+        for (int row = firstRow; row < firstRow + ROWS; row++) {
+            Component cell = renderer.getListCellRendererComponent(list, list.getModel().getElementAt(row), row,
+                    list.isSelectedIndex(row), false);
+            rendererPane.paintComponent(graphics, cell, list, 0, 0, WIDTH, rowHeight, true);
+        }
+    }
+}
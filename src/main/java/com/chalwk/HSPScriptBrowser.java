@@ -9,10 +9,27 @@
 
 package com.chalwk;
 
+import com.chalwk.cli.ScriptCli;
+import com.chalwk.metrics.MetricEvents;
+import com.chalwk.metrics.Metrics;
 import com.chalwk.model.ScriptCategory;
 import com.chalwk.model.ScriptMetadata;
+import com.chalwk.search.CodeIndex;
+import com.chalwk.search.IncrementalSearch;
+import com.chalwk.search.SearchIndex;
+import com.chalwk.search.SearchScheduler;
+import com.chalwk.service.CatalogDiff;
+import com.chalwk.service.CatalogRefresher;
+import com.chalwk.service.CodeIndexer;
+import com.chalwk.service.DownloadBatch;
+import com.chalwk.service.DownloadManager;
+import com.chalwk.service.DownloadTask;
+import com.chalwk.service.ScriptPrefetcher;
 import com.chalwk.service.ScriptService;
 import com.chalwk.ui.Buttons;
+import com.chalwk.ui.DiagnosticsDialog;
+import com.chalwk.ui.DownloadQueueDialog;
+import com.chalwk.ui.ScriptListModel;
 import com.chalwk.ui.ScriptListRenderer;
 
 import javax.swing.*;
@@ -26,21 +43,61 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseMotionAdapter;
 import java.io.File;
+import java.io.IOException;
 import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class HSPScriptBrowser extends JFrame {
+    private static final int PREFETCH_NEIGHBOURS = 2;
+
+    // Set by the startup benchmark: report the time to the first painted list and exit
+    private static final boolean EXIT_AFTER_FIRST_PAINT = Boolean.getBoolean("hsp.startup.exitAfterFirstPaint");
+
     private List<ScriptMetadata> allScripts;
     private Map<ScriptCategory, List<ScriptMetadata>> scriptsByCategory;
     private List<ScriptMetadata> filteredScripts;
+    private boolean loadingCatalog;
+    // How many loaded scripts the latest filter query covers
+    private int queriedScripts;
+    private SearchIndex searchIndex;
+    private final SearchScheduler<List<ScriptMetadata>> searchScheduler =
+            new SearchScheduler<>(150, this::showFilteredScripts);
+    private final IncrementalSearch incrementalSearch = new IncrementalSearch();
+    private final DownloadManager downloadManager = new DownloadManager(4, 3);
+    private final ScriptPrefetcher scriptPrefetcher = new ScriptPrefetcher();
+    private final CodeIndexer codeIndexer = new CodeIndexer();
+    private volatile CodeIndex codeIndex;
+    private boolean codeIndexCurrent;
+    private final Set<ScriptMetadata> changedSinceCodeIndex = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final CatalogRefreshListener catalogRefreshListener = new CatalogRefreshListener();
+    private final CatalogRefresher catalogRefresher = new CatalogRefresher(catalogRefreshListener);
 
     private JComboBox<ScriptCategory> categoryComboBox;
     private JList<ScriptMetadata> scriptList;
+    private final ScriptSelectionListener scriptSelectionListener = new ScriptSelectionListener();
+    private final ScriptListModel scriptListModel = new ScriptListModel();
+    private boolean listPainted;
+    private boolean startupRecorded;
+    private JPanel detailsContainer;
+    private JFileChooser fileChooser;
     private JTextArea descriptionArea;
     private JProgressBar progressBar;
     private JLabel statusLabel;
@@ -48,14 +105,23 @@ public class HSPScriptBrowser extends JFrame {
     private Buttons downloadButton;
     private Buttons viewOnGitHubButton;
     private JTextField searchField;
+    private JCheckBox searchCodeCheckBox;
 
-    public HSPScriptBrowser() {
+    private HSPScriptBrowser(CatalogLoader catalogLoader) {
         initializeUI();
-        loadScripts();
+        loadScripts(catalogLoader);
         setupKeyboardNavigation();
     }
 
     public static void main(String[] args) {
+        // Any arguments select the headless command line instead of the window
+        if (args.length > 0) {
+            System.exit(ScriptCli.run(args, System.out, System.err));
+        }
+
+        // Read the catalog while the window is being built. The loader reports back on the EDT,
+        // so its first results are queued behind the construction posted here.
+        CatalogLoader catalogLoader = new CatalogLoader();
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -63,8 +129,9 @@ public class HSPScriptBrowser extends JFrame {
                 e.printStackTrace();
             }
 
-            new HSPScriptBrowser().setVisible(true);
+            new HSPScriptBrowser(catalogLoader).setVisible(true);
         });
+        catalogLoader.execute();
     }
 
     private void initializeUI() {
@@ -73,12 +140,6 @@ public class HSPScriptBrowser extends JFrame {
         setMinimumSize(new Dimension(1000, 700));
         setLocationRelativeTo(null);
 
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
         // Create main panel
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(new Color(245, 247, 250));
@@ -171,6 +232,17 @@ public class HSPScriptBrowser extends JFrame {
 
         searchPanel.add(searchFieldPanel);
 
+        searchCodeCheckBox = new JCheckBox("Code");
+        searchCodeCheckBox.setToolTipText("Search identifiers in the Lua source of each script");
+        searchCodeCheckBox.setForeground(Color.WHITE);
+        searchCodeCheckBox.setOpaque(false);
+        searchCodeCheckBox.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        searchCodeCheckBox.addActionListener(e -> {
+            updateCodeIndex();
+            filterScripts();
+        });
+        searchPanel.add(searchCodeCheckBox);
+
         panel.add(categoryPanel);
         panel.add(searchPanel);
 
@@ -186,11 +258,12 @@ public class HSPScriptBrowser extends JFrame {
         // Left panel - script list
         JPanel leftPanel = createScriptListPanel();
 
-        // Right panel - script details
-        JPanel rightPanel = createDetailsPanel();
+        // Right panel - script details, filled in once the list has been painted
+        detailsContainer = new JPanel(new BorderLayout());
+        detailsContainer.setBackground(new Color(245, 247, 250));
 
         splitPane.setLeftComponent(leftPanel);
-        splitPane.setRightComponent(rightPanel);
+        splitPane.setRightComponent(detailsContainer);
 
         return splitPane;
     }
@@ -209,13 +282,46 @@ public class HSPScriptBrowser extends JFrame {
         titleLabel.setBorder(new EmptyBorder(0, 0, 15, 0));
         panel.add(titleLabel, BorderLayout.NORTH);
 
-        scriptList = new JList<>();
-        scriptList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        scriptList = new JList<ScriptMetadata>(scriptListModel) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                MetricEvents.ListPaint event = new MetricEvents.ListPaint();
+                event.begin();
+                long start = System.nanoTime();
+                super.paintComponent(g);
+                Metrics.LIST_PAINT.recordSince(start);
+                if (event.shouldCommit()) {
+                    event.rows = getLastVisibleIndex() - getFirstVisibleIndex() + 1;
+                    event.commit();
+                }
+                listPainted(getModel().getSize() > 0);
+            }
+        };
+        scriptList.setSelectionMode(ListSelectionModel.MULTIPLE_INTERVAL_SELECTION);
         scriptList.setCellRenderer(new ScriptListRenderer());
-        scriptList.addListSelectionListener(new ScriptSelectionListener());
+        scriptList.addListSelectionListener(scriptSelectionListener);
+        scriptList.addMouseMotionListener(new MouseMotionAdapter() {
+            private ScriptMetadata hoveredScript;
+
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                int index = scriptList.locationToIndex(e.getPoint());
+                if (index < 0 || !scriptList.getCellBounds(index, index).contains(e.getPoint())) return;
+
+                ScriptMetadata script = scriptList.getModel().getElementAt(index);
+                if (script != hoveredScript) {
+                    hoveredScript = script;
+                    scriptPrefetcher.prefetch(script);
+                }
+            }
+        });
         scriptList.setBackground(Color.WHITE);
         scriptList.setFont(new Font("Segoe UI", Font.PLAIN, 12));
 
+        // Every row has the same layout, so measure one prototype instead of every script
+        ScriptMetadata prototype = new ScriptMetadata(null, "Prototype", "Prototype", null, null);
+        scriptList.setPrototypeCellValue(prototype);
+
         JScrollPane listScrollPane = new JScrollPane(scriptList);
         listScrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 220, 220)));
         listScrollPane.getViewport().setBackground(Color.WHITE);
@@ -224,6 +330,37 @@ public class HSPScriptBrowser extends JFrame {
         return panel;
     }
 
+    /**
+     * Runs after every list paint. The first one builds the details panel, which nothing needs
+     * before the list is on screen; the first one showing scripts marks the end of startup.
+     */
+    private void listPainted(boolean hasScripts) {
+        if (!listPainted) {
+            listPainted = true;
+            SwingUtilities.invokeLater(this::ensureDetailsPanel);
+        }
+        if (!hasScripts || startupRecorded) return;
+        startupRecorded = true;
+
+        long nanos = ProcessHandle.current().info().startInstant()
+                .map(launch -> Duration.between(launch, Instant.now()).toNanos())
+                .orElse(-1L);
+        if (nanos < 0) return;
+        Metrics.STARTUP.record(nanos);
+
+        if (EXIT_AFTER_FIRST_PAINT) {
+            System.out.println("first-list-paint-ms=" + TimeUnit.NANOSECONDS.toMillis(nanos));
+            SwingUtilities.invokeLater(() -> System.exit(0));
+        }
+    }
+
+    private void ensureDetailsPanel() {
+        if (descriptionArea != null) return;
+        detailsContainer.add(createDetailsPanel(), BorderLayout.CENTER);
+        detailsContainer.revalidate();
+        detailsContainer.repaint();
+    }
+
     private JPanel createDetailsPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(Color.WHITE);
@@ -353,7 +490,7 @@ public class HSPScriptBrowser extends JFrame {
         actionMap.put("download", new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (downloadButton.isEnabled()) {
+                if (downloadButton != null && downloadButton.isEnabled()) {
                     downloadButton.doClick();
                 }
             }
@@ -370,227 +507,405 @@ public class HSPScriptBrowser extends JFrame {
             }
         });
 
+        // F12 for the diagnostics window
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_F12, 0), "diagnostics");
+        actionMap.put("diagnostics", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                new DiagnosticsDialog(HSPScriptBrowser.this).setVisible(true);
+            }
+        });
+
         // Keyboard navigation
         scriptList.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                if (e.getKeyCode() == KeyEvent.VK_ENTER && downloadButton.isEnabled()) {
+                if (e.getKeyCode() == KeyEvent.VK_ENTER && downloadButton != null && downloadButton.isEnabled()) {
                     downloadButton.doClick();
                 }
             }
         });
     }
 
-    private void loadScripts() {
-        new SwingWorker<Void, Void>() {
+    private void loadScripts(CatalogLoader catalogLoader) {
+        statusLabel.setText("Loading scripts...");
+        progressBar.setIndeterminate(true);
+        progressBar.setVisible(true);
+
+        allScripts = new ArrayList<>();
+        scriptsByCategory = new HashMap<>();
+        filteredScripts = new ArrayList<>();
+        loadingCatalog = true;
+        codeIndex = codeIndexer.loadExisting();
+        catalogLoader.browser = this;
+    }
+
+    /**
+     * Adds a batch of streamed scripts to their categories and appends the ones that match the
+     * current filter, unsorted; {@link #catalogLoaded} sorts the whole list once.
+     */
+    private void scriptsLoaded(List<ScriptMetadata> chunks) {
+        int loaded = allScripts.size();
+        allScripts.addAll(chunks);
+        for (ScriptMetadata script : chunks) {
+            scriptsByCategory.computeIfAbsent(script.getCategory(), category -> new ArrayList<>()).add(script);
+        }
+        updateCategories();
+
+        List<ScriptMetadata> matches = matchLoadedScripts(loaded);
+        filteredScripts.addAll(matches);
+        scriptListModel.addScripts(matches);
+        updateStatistics();
+        statusLabel.setText("Loading scripts... " + allScripts.size() + " so far");
+    }
+
+    /**
+     * @return the scripts loaded from position {@code from} on that the current category and
+     * search text select
+     */
+    private List<ScriptMetadata> matchLoadedScripts(int from) {
+        ScriptCategory selectedCategory = (ScriptCategory) categoryComboBox.getSelectedItem();
+        List<ScriptMetadata> scripts = new ArrayList<>();
+        for (ScriptMetadata script : allScripts.subList(from, allScripts.size())) {
+            if (script.getCategory() == selectedCategory) scripts.add(script);
+        }
+
+        String searchText = searchField.getText().trim();
+        if (searchText.isEmpty() || scripts.isEmpty()) return scripts;
+        if (searchCodeCheckBox.isSelected() && codeIndex != null) {
+            Set<String> matchingUrls = codeIndex.search(searchText);
+            scripts.removeIf(script -> !matchingUrls.contains(script.getRawScriptUrl()));
+            return scripts;
+        }
+        return SearchIndex.filter(scripts, searchText);
+    }
+
+    private void catalogLoaded(List<ScriptMetadata> fresh, SearchIndex index, IOException revalidationError) {
+        progressBar.setIndeterminate(false);
+        progressBar.setVisible(false);
+        loadingCatalog = false;
+
+        if (fresh != null && !fresh.isEmpty()) {
+            allScripts = fresh;
+            organizeScriptsByCategory();
+        }
+        // Searches typed while loading were plain scans; rank them now
+        searchIndex = index;
+        filterScripts();
+
+        if (allScripts.isEmpty()) {
+            statusLabel.setText("Failed to load scripts from GitHub");
+            JOptionPane.showMessageDialog(this,
+                    "Failed to load scripts from GitHub. Please check your internet connection.",
+                    "Loading Error", JOptionPane.ERROR_MESSAGE);
+        } else if (revalidationError != null) {
+            statusLabel.setText("Could not reach GitHub - showing " + allScripts.size() + " scripts");
+        } else {
+            statusLabel.setText("Loaded " + allScripts.size() + " scripts from GitHub");
+        }
+
+        codeIndexCurrent = false;
+        updateCodeIndex();
+        catalogRefreshListener.index = searchIndex;
+        catalogRefresher.start(allScripts);
+    }
+
+    /**
+     * Applies a background refresh whose search index is already updated: only the outgoing
+     * and incoming scripts are touched in the category lists, and the list model diffs the new
+     * results in, so selection and scroll position survive.
+     */
+    private void applyCatalogChanges(CatalogDiff diff, SearchIndex updatedIndex) {
+        List<ScriptMetadata> outgoing = diff.getOutgoing();
+        List<ScriptMetadata> incoming = diff.getIncoming();
+
+        allScripts = new ArrayList<>(diff.getUpdatedCatalog());
+        searchIndex = updatedIndex;
+
+        // Queries on the search worker may still hold the old lists, so changed ones are copied
+        Set<ScriptMetadata> leaving = Collections.newSetFromMap(new IdentityHashMap<>());
+        leaving.addAll(outgoing);
+        Map<ScriptCategory, List<ScriptMetadata>> previous =
+                scriptsByCategory != null ? scriptsByCategory : Collections.emptyMap();
+        Map<ScriptCategory, List<ScriptMetadata>> updated = new HashMap<>(previous);
+        for (ScriptMetadata script : outgoing) {
+            List<ScriptMetadata> scripts = updated.get(script.getCategory());
+            if (scripts != null && scripts == previous.get(script.getCategory())) {
+                scripts = new ArrayList<>(scripts);
+                scripts.removeIf(leaving::contains);
+                updated.put(script.getCategory(), scripts);
+            }
+        }
+        for (ScriptMetadata script : incoming) {
+            List<ScriptMetadata> scripts = updated.get(script.getCategory());
+            if (scripts == null || scripts == previous.get(script.getCategory())) {
+                scripts = scripts != null ? new ArrayList<>(scripts) : new ArrayList<>();
+                updated.put(script.getCategory(), scripts);
+            }
+            scripts.add(script);
+        }
+        updated.values().removeIf(List::isEmpty);
+        scriptsByCategory = updated;
+
+        updateCategories();
+        filterScripts();
+        statusLabel.setText("Catalog updated (" + diff + ") - " + allScripts.size() + " scripts");
+        changedSinceCodeIndex.addAll(incoming);
+        codeIndexCurrent = false;
+        updateCodeIndex();
+    }
+
+    /**
+     * Brings the code index up to date with the catalog, only while code search is on, since
+     * indexing fetches the body of every script not stored yet.
+     */
+    private void updateCodeIndex() {
+        if (codeIndexCurrent || !searchCodeCheckBox.isSelected() || allScripts.isEmpty()) return;
+        codeIndexCurrent = true;
+
+        List<ScriptMetadata> changed = new ArrayList<>(changedSinceCodeIndex);
+        codeIndexer.start(allScripts, codeIndex, changed, new CodeIndexer.Listener() {
             @Override
-            protected Void doInBackground() throws Exception {
+            public void progress(int done, int total) {
+                if (done % 25 != 0 && done != total) return;
                 SwingUtilities.invokeLater(() -> {
-                    statusLabel.setText("Loading scripts from GitHub...");
-                    progressBar.setIndeterminate(true);
-                    progressBar.setVisible(true);
+                    if (searchCodeCheckBox.isSelected()) {
+                        statusLabel.setText("Indexing script source... " + done + "/" + total);
+                    }
                 });
-
-                allScripts = ScriptService.loadScriptsMetadata();
-                organizeScriptsByCategory();
-
-                return null;
             }
 
             @Override
-            protected void done() {
+            public void finished(CodeIndex index) {
                 SwingUtilities.invokeLater(() -> {
-                    progressBar.setIndeterminate(false);
-                    progressBar.setVisible(false);
-                    if (allScripts != null && !allScripts.isEmpty()) {
-                        statusLabel.setText("Loaded " + allScripts.size() + " scripts from GitHub");
-                        updateStatistics();
-                        filterScripts();
-                    } else {
-                        statusLabel.setText("Failed to load scripts from GitHub");
-                        JOptionPane.showMessageDialog(HSPScriptBrowser.this,
-                                "Failed to load scripts from GitHub. Please check your internet connection.",
-                                "Loading Error", JOptionPane.ERROR_MESSAGE);
+                    changed.forEach(changedSinceCodeIndex::remove);
+                    boolean replaced = index != codeIndex;
+                    codeIndex = index;
+                    if (searchCodeCheckBox.isSelected()) {
+                        statusLabel.setText("Indexed the source of " + index.getDocumentCount() + " scripts");
+                        if (replaced) filterScripts();
                     }
                 });
             }
-        }.execute();
+        });
     }
 
     private void organizeScriptsByCategory() {
         scriptsByCategory = allScripts.stream()
                 .collect(Collectors.groupingBy(ScriptMetadata::getCategory));
+        updateCategories();
+    }
+
+    /**
+     * Offers the upstream categories plus any further folders the loaded sources provide.
+     */
+    private void updateCategories() {
+        List<ScriptCategory> categories = new ArrayList<>();
+        for (ScriptCategory category : ScriptCategory.values()) {
+            if (scriptsByCategory.containsKey(category) || category == ScriptCategory.ATTRACTIVE
+                    || category == ScriptCategory.CUSTOM_GAMES || category == ScriptCategory.UTILITY) {
+                categories.add(category);
+            }
+        }
+
+        ComboBoxModel<ScriptCategory> current = categoryComboBox.getModel();
+        boolean unchanged = current.getSize() == categories.size();
+        for (int i = 0; unchanged && i < categories.size(); i++) {
+            unchanged = current.getElementAt(i) == categories.get(i);
+        }
+        if (unchanged) return;
+
+        Object selected = categoryComboBox.getSelectedItem();
+        DefaultComboBoxModel<ScriptCategory> model = new DefaultComboBoxModel<>(categories.toArray(new ScriptCategory[0]));
+        if (categories.contains(selected)) model.setSelectedItem(selected);
+        categoryComboBox.setModel(model);
     }
 
     private void filterScripts() {
         if (scriptsByCategory == null) return;
+        searchScheduler.runNow(createFilterQuery());
+    }
 
+    private void scheduleFilterScripts() {
+        if (scriptsByCategory == null) return;
+        searchScheduler.schedule(createFilterQuery());
+    }
+
+    private Callable<List<ScriptMetadata>> createFilterQuery() {
+        // Capture the current state on the EDT; the query itself runs on the search worker
         ScriptCategory selectedCategory = (ScriptCategory) categoryComboBox.getSelectedItem();
-        List<ScriptMetadata> categoryScripts = scriptsByCategory.getOrDefault(selectedCategory, new ArrayList<>());
+        List<ScriptMetadata> category = scriptsByCategory.getOrDefault(selectedCategory, new ArrayList<>());
+        // Categories grow in place while the catalog streams in, so the query gets its own copy
+        List<ScriptMetadata> categoryScripts = loadingCatalog ? new ArrayList<>(category) : category;
+        queriedScripts = allScripts.size();
+        String searchText = searchField.getText().trim();
+        SearchIndex index = searchIndex;
+        CodeIndex sourceIndex = searchCodeCheckBox.isSelected() ? codeIndex : null;
+
+        return () -> {
+            // Match against script source instead of titles and descriptions
+            if (!searchText.isEmpty() && sourceIndex != null) {
+                Set<String> matchingUrls = sourceIndex.search(searchText);
+                return categoryScripts.stream()
+                        .filter(script -> matchingUrls.contains(script.getRawScriptUrl()))
+                        .sorted(Comparator.comparing(ScriptMetadata::getTitle))
+                        .collect(Collectors.toList());
+            }
+
+            // Apply search filter; until the catalog has loaded and been indexed, scan it instead
+            if (!searchText.isEmpty() && index != null) {
+                return incrementalSearch.search(index, searchText, selectedCategory);
+            }
+            if (!searchText.isEmpty()) {
+                List<ScriptMetadata> matches = SearchIndex.filter(categoryScripts, searchText);
+                matches.sort(Comparator.comparing(ScriptMetadata::getTitle));
+                return matches;
+            }
 
-        // Apply search filter
-        String searchText = searchField.getText().trim().toLowerCase();
-        if (!searchText.isEmpty()) {
-            categoryScripts = applyRelevanceSearch(categoryScripts, searchText);
-        } else {
             // Sort by title when no search
-            categoryScripts.sort(Comparator.comparing(ScriptMetadata::getTitle));
-        }
+            List<ScriptMetadata> sorted = new ArrayList<>(categoryScripts);
+            sorted.sort(Comparator.comparing(ScriptMetadata::getTitle));
+            return sorted;
+        };
+    }
 
-        filteredScripts = categoryScripts;
-        scriptList.setListData(filteredScripts.toArray(new ScriptMetadata[0]));
+    private void showFilteredScripts(List<ScriptMetadata> scripts) {
+        List<ScriptMetadata> selectedScripts = scriptList.getSelectedValuesList();
+        int[] selectedIndices = scriptList.getSelectedIndices();
 
-        // Clear selection
-        scriptList.clearSelection();
-        descriptionArea.setText("");
-        downloadButton.setEnabled(false);
-        viewOnGitHubButton.setEnabled(false);
+        if (loadingCatalog) {
+            // Kept growing as batches arrive, starting with any that came in while the query ran
+            scripts = new ArrayList<>(scripts);
+            scripts.addAll(matchLoadedScripts(queriedScripts));
+        }
+        filteredScripts = scripts;
+        scriptListModel.setScripts(filteredScripts);
+        restoreSelection(selectedScripts);
+
+        // A refresh replaces changed rows without touching the selection, so nothing else
+        // would show the new details of a selected script
+        if (!selectedScripts.isEmpty() && Arrays.equals(selectedIndices, scriptList.getSelectedIndices())
+                && !selectedScripts.equals(scriptList.getSelectedValuesList())) {
+            scriptSelectionListener.valueChanged(new ListSelectionEvent(scriptList,
+                    selectedIndices[0], selectedIndices[selectedIndices.length - 1], false));
+        }
 
         updateStatistics();
     }
 
-    private List<ScriptMetadata> applyRelevanceSearch(List<ScriptMetadata> scripts, String searchText) {
-        return scripts.stream()
-                .map(script -> calculateRelevance(script, searchText))
-                .filter(result -> matchesSearch(result.script, searchText))
-                .sorted((r1, r2) -> Integer.compare(r2.score, r1.score)) // Descending order by relevance
-                .map(result -> result.script)
-                .collect(Collectors.toList());
-    }
-
-    private SearchResult calculateRelevance(ScriptMetadata script, String searchText) {
-        int score = 0;
-        String title = script.getTitle().toLowerCase();
-        String filename = script.getFilenameWithoutExtension() != null ?
-                script.getFilenameWithoutExtension().toLowerCase() : "";
-        String description = script.getDescription() != null ? script.getDescription().toLowerCase() : "";
-        String shortDescription = script.getShortDescription() != null ?
-                script.getShortDescription().toLowerCase() : "";
-        String category = script.getCategory().getDisplayName().toLowerCase();
-
-        String[] searchTerms = searchText.toLowerCase().split("\\s+");
-
-        for (String term : searchTerms) {
-            // Exact matches (highest score)
-            if (title.equals(term)) score += 100;
-            if (filename.equals(term)) score += 100;
-
-            // Contains matches (medium score)
-            if (title.contains(term)) score += 50;
-            if (filename.contains(term)) score += 50;
-            if (description.contains(term)) score += 10;
-            if (shortDescription.contains(term)) score += 10;
-            if (category.contains(term)) score += 5;
-
-            // Fuzzy matches (lowest score)
-            if (fuzzyMatch(title, term)) score += 3;
-            if (fuzzyMatch(filename, term)) score += 3;
-            if (fuzzyMatch(description, term)) score += 1;
-        }
-
-        return new SearchResult(script, score);
-    }
-
-    private boolean matchesSearch(ScriptMetadata script, String searchText) {
-        if (searchText.isEmpty()) return true;
-
-        String[] searchTerms = searchText.toLowerCase().split("\\s+");
-        String title = script.getTitle() != null ? script.getTitle().toLowerCase() : "";
-        String description = script.getDescription() != null ? script.getDescription().toLowerCase() : "";
-        String shortDescription = script.getShortDescription() != null ?
-                script.getShortDescription().toLowerCase() : "";
-        String category = script.getCategory().getDisplayName().toLowerCase();
-        String filename = script.getFilenameWithoutExtension() != null ?
-                script.getFilenameWithoutExtension().toLowerCase() : "";
-
-        for (String term : searchTerms) {
-            boolean matches =
-                    // Exact matches (highest priority)
-                    title.equals(term) ||
-                            filename.equals(term) ||
-
-                            // Contains matches (medium priority)
-                            title.contains(term) ||
-                            filename.contains(term) ||
-                            description.contains(term) ||
-                            shortDescription.contains(term) ||
-                            category.contains(term) ||
-
-                            // Fuzzy matches (lowest priority)
-                            fuzzyMatch(title, term) ||
-                            fuzzyMatch(filename, term);
-
-            if (!matches) {
-                return false;
-            }
+    private void restoreSelection(List<ScriptMetadata> selectedScripts) {
+        if (selectedScripts.isEmpty()) return;
+
+        // Matched by URL, since a refresh may have replaced a selected script with a new instance
+        List<Integer> indices = new ArrayList<>();
+        for (ScriptMetadata selected : selectedScripts) {
+            String url = selected.getRawScriptUrl();
+            int index = scriptListModel.indexOf(script -> script == selected || script.getRawScriptUrl().equals(url));
+            if (index >= 0) indices.add(index);
         }
-        return true;
-    }
 
-    private boolean fuzzyMatch(String text, String pattern) {
-        if (pattern.isEmpty()) return true;
-        if (text.isEmpty()) return false;
+        // The model already carries the selection across most updates; only fix it up if it drifted
+        int[] expected = indices.stream().mapToInt(Integer::intValue).sorted().distinct().toArray();
+        if (Arrays.equals(expected, scriptList.getSelectedIndices())) return;
 
-        int patternIndex = 0;
-        for (int i = 0; i < text.length() && patternIndex < pattern.length(); i++) {
-            if (text.charAt(i) == pattern.charAt(patternIndex)) {
-                patternIndex++;
-            }
+        ListSelectionModel selectionModel = scriptList.getSelectionModel();
+        selectionModel.setValueIsAdjusting(true);
+        selectionModel.clearSelection();
+        for (int index : expected) {
+            selectionModel.addSelectionInterval(index, index);
         }
-        return patternIndex == pattern.length();
+        selectionModel.setValueIsAdjusting(false);
     }
 
     private void updateStatistics() {
         if (allScripts == null) return;
 
-        long total = allScripts.size();
-        long attractive = allScripts.stream().filter(s -> s.getCategory() == ScriptCategory.ATTRACTIVE).count();
-        long customGames = allScripts.stream().filter(s -> s.getCategory() == ScriptCategory.CUSTOM_GAMES).count();
-        long utility = allScripts.stream().filter(s -> s.getCategory() == ScriptCategory.UTILITY).count();
+        StringBuilder statsText = new StringBuilder("Total: ").append(allScripts.size());
+        ComboBoxModel<ScriptCategory> categories = categoryComboBox.getModel();
+        for (int i = 0; i < categories.getSize(); i++) {
+            ScriptCategory category = categories.getElementAt(i);
+            List<ScriptMetadata> scripts = scriptsByCategory != null ? scriptsByCategory.get(category) : null;
+            statsText.append(" | ").append(category.getDisplayName()).append(": ")
+                    .append(scripts != null ? scripts.size() : 0);
+        }
 
         long showing = filteredScripts != null ? filteredScripts.size() : 0;
+        statsText.append(" | Showing: ").append(showing);
 
-        String statsText = String.format("Total: %d | Attractive: %d | Custom Games: %d | Utility: %d | Showing: %d",
-                total, attractive, customGames, utility, showing);
-
-        statisticsLabel.setText(statsText);
+        statisticsLabel.setText(statsText.toString());
     }
 
     private void downloadScript(ScriptMetadata script, File outputFile) {
-        new Thread(() -> {
-            SwingUtilities.invokeLater(() -> {
-                downloadButton.setEnabled(false);
-                statusLabel.setText("Downloading " + script.getFilename() + "...");
-                progressBar.setVisible(true);
-                progressBar.setValue(0);
-            });
+        downloadButton.setEnabled(false);
+        statusLabel.setText("Downloading " + script.getFilename() + "...");
+        progressBar.setVisible(true);
+        progressBar.setValue(0);
 
-            boolean success = ScriptService.downloadScript(script, outputFile, progressBar, statusLabel);
+        DownloadTask task = new DownloadTask(script, outputFile.toPath());
+        downloadManager.submit(Collections.singletonList(task), new DownloadManager.Listener() {
+            @Override
+            public void taskUpdated(DownloadTask task) {
+                SwingUtilities.invokeLater(() -> {
+                    progressBar.setIndeterminate(task.getContentLength() <= 0
+                            && task.getState() == DownloadTask.State.DOWNLOADING);
+                    progressBar.setValue((int) Math.round(task.getFraction() * 100));
+                    if (task.getState() == DownloadTask.State.RETRYING) {
+                        statusLabel.setText("Retrying " + script.getFilename() + ": " + task.getError());
+                    } else if (task.getContentLength() > 0) {
+                        statusLabel.setText("Downloaded " + task.getBytesRead() + " of "
+                                + task.getContentLength() + " bytes...");
+                    }
+                });
+            }
 
-            SwingUtilities.invokeLater(() -> {
-                downloadButton.setEnabled(true);
-                progressBar.setVisible(false);
-                if (success) {
-                    statusLabel.setText("Successfully downloaded " + script.getFilename());
-                    JOptionPane.showMessageDialog(HSPScriptBrowser.this,
-                            "Script '" + script.getTitle() + "' downloaded successfully!\n\n" +
-                                    "Location: " + outputFile.getAbsolutePath(),
-                            "Download Complete", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    statusLabel.setText("Download failed for " + script.getFilename());
-                }
-            });
-        }).start();
+            @Override
+            public void batchFinished(DownloadBatch batch) {
+                SwingUtilities.invokeLater(() -> {
+                    downloadButton.setEnabled(!scriptList.isSelectionEmpty());
+                    progressBar.setIndeterminate(false);
+                    progressBar.setVisible(false);
+                    if (task.getState() == DownloadTask.State.COMPLETED) {
+                        statusLabel.setText("Successfully downloaded " + script.getFilename());
+                        JOptionPane.showMessageDialog(HSPScriptBrowser.this,
+                                "Script '" + script.getTitle() + "' downloaded successfully!\n\n" +
+                                        "Location: " + outputFile.getAbsolutePath(),
+                                "Download Complete", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        statusLabel.setText("Download failed for " + script.getFilename() + ": " + task.getError());
+                    }
+                });
+            }
+        });
     }
 
-    private static class SearchResult {
-        ScriptMetadata script;
-        int score;
+    private void downloadScripts(List<ScriptMetadata> scripts, File directory) {
+        List<DownloadTask> tasks = new ArrayList<>();
+        List<String> unsafe = new ArrayList<>();
+        for (ScriptMetadata script : scripts) {
+            Path target = ScriptService.resolveScriptFile(directory.toPath(), script);
+            if (target != null) {
+                tasks.add(new DownloadTask(script, target));
+            } else {
+                unsafe.add(script.getTitle() + " (" + script.getFilename() + ")");
+            }
+        }
 
-        SearchResult(ScriptMetadata script, int score) {
-            this.script = script;
-            this.score = score;
+        if (!unsafe.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Skipped " + unsafe.size() + " scripts whose filenames would save them outside the chosen "
+                            + "folder:\n\n- " + String.join("\n- ", unsafe),
+                    "Unsafe Filenames", JOptionPane.WARNING_MESSAGE);
+        }
+        if (tasks.isEmpty()) {
+            statusLabel.setText("Nothing to download");
+            return;
         }
+
+        statusLabel.setText("Downloading " + tasks.size() + " scripts to " + directory.getAbsolutePath());
+
+        DownloadQueueDialog queueDialog = new DownloadQueueDialog(this, tasks);
+        queueDialog.setBatch(downloadManager.submit(tasks, queueDialog));
+        queueDialog.setVisible(true);
     }
 
     private class ScriptSelectionListener implements ListSelectionListener {
@@ -598,9 +913,16 @@ public class HSPScriptBrowser extends JFrame {
         public void valueChanged(ListSelectionEvent e) {
             if (e.getValueIsAdjusting()) return;
 
-            ScriptMetadata selectedScript = scriptList.getSelectedValue();
-            if (selectedScript != null) {
-                descriptionArea.setText(buildDescriptionText(selectedScript));
+            ensureDetailsPanel();
+            prefetchAround(scriptList.getLeadSelectionIndex());
+
+            List<ScriptMetadata> selectedScripts = scriptList.getSelectedValuesList();
+            if (selectedScripts.size() > 1) {
+                descriptionArea.setText(buildSelectionText(selectedScripts));
+                downloadButton.setEnabled(true);
+                viewOnGitHubButton.setEnabled(false);
+            } else if (selectedScripts.size() == 1) {
+                descriptionArea.setText(buildDescriptionText(selectedScripts.get(0)));
                 downloadButton.setEnabled(true);
                 viewOnGitHubButton.setEnabled(true);
             } else {
@@ -610,23 +932,58 @@ public class HSPScriptBrowser extends JFrame {
             }
         }
 
+        private void prefetchAround(int index) {
+            ListModel<ScriptMetadata> model = scriptList.getModel();
+            if (index < 0 || index >= model.getSize()) return;
+
+            // Neighbours first: the prefetcher serves the newest request first, so the selection wins
+            for (int offset = PREFETCH_NEIGHBOURS; offset >= 1; offset--) {
+                if (index + offset < model.getSize()) scriptPrefetcher.prefetch(model.getElementAt(index + offset));
+                if (index - offset >= 0) scriptPrefetcher.prefetch(model.getElementAt(index - offset));
+            }
+            scriptPrefetcher.prefetch(model.getElementAt(index));
+        }
+
         private String buildDescriptionText(ScriptMetadata script) {
             return "Title: " + script.getTitle() + "\n\n" +
                     "Category: " + script.getCategory().getDisplayName() + "\n\n" +
                     "Filename: " + script.getFilename() + "\n\n" +
                     "Description:\n" + script.getDescription();
         }
+
+        private String buildSelectionText(List<ScriptMetadata> scripts) {
+            StringBuilder text = new StringBuilder()
+                    .append(scripts.size()).append(" scripts selected:\n");
+            for (ScriptMetadata script : scripts) {
+                text.append("\n- ").append(script.getTitle()).append(" (").append(script.getFilename()).append(")");
+            }
+            return text.toString();
+        }
     }
 
     private class DownloadButtonListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
-            ScriptMetadata selectedScript = scriptList.getSelectedValue();
-            if (selectedScript == null) return;
+            List<ScriptMetadata> selectedScripts = scriptList.getSelectedValuesList();
+            if (selectedScripts.isEmpty()) return;
+
+            if (selectedScripts.size() > 1) {
+                JFileChooser directoryChooser = getFileChooser();
+                directoryChooser.setDialogTitle("Choose Download Folder for " + selectedScripts.size() + " Scripts");
+                directoryChooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+                directoryChooser.setSelectedFile(null);
 
-            JFileChooser fileChooser = new JFileChooser();
+                if (directoryChooser.showSaveDialog(HSPScriptBrowser.this) == JFileChooser.APPROVE_OPTION) {
+                    downloadScripts(selectedScripts, directoryChooser.getSelectedFile());
+                }
+                return;
+            }
+
+            ScriptMetadata selectedScript = selectedScripts.get(0);
+            JFileChooser fileChooser = getFileChooser();
             fileChooser.setDialogTitle("Choose Download Location");
-            fileChooser.setSelectedFile(new File(selectedScript.getFilename()));
+            // Only suggest the name itself, so a crafted filename cannot point the dialog elsewhere
+            fileChooser.setSelectedFile(new File(new File(selectedScript.getFilename()).getName()));
             fileChooser.setFileSelectionMode(JFileChooser.FILES_ONLY);
 
             int result = fileChooser.showSaveDialog(HSPScriptBrowser.this);
@@ -637,6 +994,98 @@ public class HSPScriptBrowser extends JFrame {
         }
     }
 
+    /**
+     * The file chooser is slow to create, so it is made on first use and then reused, which
+     * also keeps the folder the user last picked.
+     */
+    private JFileChooser getFileChooser() {
+        if (fileChooser == null) {
+            fileChooser = new JFileChooser();
+        }
+        return fileChooser;
+    }
+
+    /**
+     * Reads the cached catalog and then revalidates every source, starting before the window
+     * exists, and finally indexes whichever catalog ends up on screen. Results are handed to
+     * {@link #browser}, which is set on the EDT before any of them can arrive there.
+     */
+    private static class CatalogLoader extends SwingWorker<List<ScriptMetadata>, ScriptMetadata> {
+        private HSPScriptBrowser browser;
+        private IOException revalidationError;
+        private SearchIndex index;
+
+        @Override
+        protected List<ScriptMetadata> doInBackground() {
+            // Render the cached copy straight away (stale-while-revalidate)
+            List<ScriptMetadata> shown = new ArrayList<>();
+            Consumer<ScriptMetadata> show = script -> {
+                shown.add(script);
+                publish(script);
+            };
+            int cachedCount = ScriptService.loadCachedScriptsMetadata(show);
+
+            // Without a cache, stream network results straight into the list (as they are
+            // parsed with one source, once merged with several); otherwise collect them
+            // off-screen and swap the whole catalog once it is complete
+            List<ScriptMetadata> fresh = cachedCount > 0 ? new ArrayList<>() : null;
+            boolean modified = false;
+            try {
+                modified = ScriptService.revalidateScriptsMetadata(fresh != null ? fresh::add : show);
+            } catch (IOException e) {
+                revalidationError = e;
+            }
+
+            List<ScriptMetadata> catalog = modified && fresh != null && !fresh.isEmpty() ? fresh : shown;
+            if (!catalog.isEmpty()) {
+                index = ScriptService.takeCatalogIndex(catalog);
+                if (index == null) index = SearchIndex.build(catalog);
+            }
+            return modified ? fresh : null;
+        }
+
+        @Override
+        protected void process(List<ScriptMetadata> chunks) {
+            // SwingWorker coalesces publish() calls, so each batch costs one list refresh
+            browser.scriptsLoaded(chunks);
+        }
+
+        @Override
+        protected void done() {
+            List<ScriptMetadata> fresh = null;
+            try {
+                fresh = get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+            browser.catalogLoaded(fresh, index, revalidationError);
+        }
+    }
+
+    /**
+     * Indexes each refresh on the refresher thread, so the EDT only swaps the result in.
+     * Refreshes arrive one at a time, and each updates the index left by the one before.
+     */
+    private class CatalogRefreshListener implements CatalogRefresher.Listener {
+        // Set on the EDT before the refresher starts; from then on only used by the refresher
+        private SearchIndex index;
+
+        @Override
+        public void catalogChanged(CatalogDiff diff) {
+            index = index != null
+                    ? index.update(diff.getOutgoing(), diff.getIncoming())
+                    : SearchIndex.build(diff.getUpdatedCatalog());
+            SearchIndex updatedIndex = index;
+            SwingUtilities.invokeLater(() -> applyCatalogChanges(diff, updatedIndex));
+        }
+
+        @Override
+        public void refreshFailed(IOException error, Duration retryDelay) {
+            SwingUtilities.invokeLater(() -> statusLabel.setText("Could not refresh the catalog - retrying in "
+                    + Math.max(retryDelay.toMinutes(), 1) + " min"));
+        }
+    }
+
     private class ViewOnGitHubListener implements ActionListener {
         @Override
         public void actionPerformed(ActionEvent e) {
@@ -656,17 +1105,17 @@ public class HSPScriptBrowser extends JFrame {
     private class SearchDocumentListener implements DocumentListener {
         @Override
         public void insertUpdate(DocumentEvent e) {
-            filterScripts();
+            scheduleFilterScripts();
         }
 
         @Override
         public void removeUpdate(DocumentEvent e) {
-            filterScripts();
+            scheduleFilterScripts();
         }
 
         @Override
         public void changedUpdate(DocumentEvent e) {
-            filterScripts();
+            scheduleFilterScripts();
         }
     }
 }
\ No newline at end of file
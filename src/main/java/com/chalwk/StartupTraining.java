@@ -0,0 +1,115 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk;
+
+import com.chalwk.model.ScriptMetadata;
+import com.chalwk.search.IncrementalSearch;
+import com.chalwk.search.SearchIndex;
+import com.chalwk.service.MetadataStreamParser;
+import com.chalwk.ui.Buttons;
+import com.chalwk.ui.ScriptListModel;
+import com.chalwk.ui.ScriptListRenderer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Training run for the class-data sharing archive the build produces. It walks the startup
+ * path without opening a window or touching the network - parsing a catalog, indexing and
+ * searching it, and laying out and painting the main components off-screen - and then loads
+ * every class of the application jar, so the recorded class list covers what a real launch
+ * needs. Safe to run on a build machine without a display.
+ */
+public final class StartupTraining {
+
+    private static final String SAMPLE_CATALOG = "{\"version\":1,"
+            + "\"attractive\":{\"welcome\":{\"title\":\"Welcome Messages\",\"shortDescription\":\"Greets players\","
+            + "\"description\":\"Shows a message when a player joins.\",\"filename\":\"welcome.lua\"}},"
+            + "\"custom_games\":{\"zombies\":{\"title\":\"Zombies\",\"shortDescription\":\"Infection mode\","
+            + "\"description\":\"Humans against zombies.\",\"filename\":\"zombies.lua\"}},"
+            + "\"utility\":{\"kill_spree\":{\"title\":\"Kill Spree\",\"shortDescription\":\"Announces sprees\","
+            + "\"description\":\"Announces killing sprees.\",\"filename\":\"kill_spree.lua\"}}}";
+
+    private StartupTraining() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<ScriptMetadata> scripts = new ArrayList<>();
+        MetadataStreamParser.parse(new StringReader(SAMPLE_CATALOG), scripts::add);
+        SearchIndex index = SearchIndex.build(scripts);
+        new IncrementalSearch().search(index, "kill", scripts.get(0).getCategory());
+
+        SwingUtilities.invokeAndWait(() -> paintComponents(scripts));
+        loadApplicationClasses();
+        System.exit(0);
+    }
+
+    private static void paintComponents(List<ScriptMetadata> scripts) {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        ScriptListModel model = new ScriptListModel();
+        model.setScripts(scripts);
+        JList<ScriptMetadata> list = new JList<>(model);
+        list.setCellRenderer(new ScriptListRenderer());
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(new JComboBox<>(new String[]{"Utility"}), BorderLayout.NORTH);
+        panel.add(new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(list), new JScrollPane(new JTextArea("Description"))), BorderLayout.CENTER);
+
+        JPanel statusPanel = new JPanel(new FlowLayout());
+        statusPanel.add(new JTextField(20));
+        statusPanel.add(new JCheckBox("Code"));
+        statusPanel.add(new JProgressBar());
+        statusPanel.add(new Buttons("Download Script"));
+        panel.add(statusPanel, BorderLayout.SOUTH);
+
+        panel.setSize(1000, 700);
+        panel.doLayout();
+        panel.validate();
+
+        BufferedImage image = new BufferedImage(1000, 700, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        panel.printAll(graphics);
+        graphics.dispose();
+    }
+
+    private static void loadApplicationClasses() throws Exception {
+        File location = new File(StartupTraining.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+        if (!location.isFile()) return;
+
+        ClassLoader loader = StartupTraining.class.getClassLoader();
+        try (JarFile jar = new JarFile(location)) {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (!name.endsWith(".class") || name.startsWith("META-INF/")) continue;
+                try {
+                    Class.forName(name.substring(0, name.length() - ".class".length()).replace('/', '.'),
+                            false, loader);
+                } catch (Throwable e) {
+                    // Classes that cannot load here are simply left out of the archive
+                }
+            }
+        }
+    }
+}
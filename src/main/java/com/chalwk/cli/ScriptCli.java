@@ -0,0 +1,427 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.cli;
+
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+import com.chalwk.search.SearchIndex;
+import com.chalwk.service.DownloadBatch;
+import com.chalwk.service.DownloadManager;
+import com.chalwk.service.DownloadTask;
+import com.chalwk.service.MirrorSync;
+import com.chalwk.service.ScriptService;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+/**
+ * Headless front end for servers and provisioning scripts: lists, searches and exports the
+ * catalog without creating any Swing component. Results go to stdout (tab-separated, or
+ * JSON with {@code --json}), diagnostics to stderr, and the outcome to the exit code.
+ */
+public final class ScriptCli {
+
+    public static final int EXIT_OK = 0;
+    // Also when an export skipped a script whose filename would leave the target directory
+    public static final int EXIT_DOWNLOAD_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+    public static final int EXIT_CATALOG_UNAVAILABLE = 3;
+    public static final int EXIT_NOT_FOUND = 4;
+
+    private static final int DEFAULT_JOBS = 8;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: java -jar hsp-script-browser.jar <command> [options]",
+            "",
+            "Commands:",
+            "  list                            List the catalog",
+            "  search <query>                  Search titles, filenames and descriptions",
+            "  export <directory> [script...]  Download scripts (by filename) into a directory",
+            "  sync <directory>                Update a mirror of the catalog, fetching only changes",
+            "",
+            "Options:",
+            "  --category <name>  Only scripts of this category folder (e.g. attractive, custom_games, utility)",
+            "  --all              export: every script in the catalog (or in --category)",
+            "  --jobs <n>         export/sync: parallel downloads (default " + DEFAULT_JOBS + ")",
+            "  --offline          Use the cached catalog without contacting any source",
+            "  --json             Print machine-readable JSON",
+            "",
+            "Exit codes: 0 success, 1 a download failed (sync: nothing was changed), 2 usage error,",
+            "            3 catalog unavailable, 4 no matching scripts");
+
+    private final PrintStream out;
+    private final PrintStream err;
+
+    private String categoryName;
+    private ScriptCategory category;
+    private boolean all;
+    private boolean offline;
+    private boolean json;
+    private int jobs = DEFAULT_JOBS;
+    private final List<String> arguments = new ArrayList<>();
+
+    private ScriptCli(PrintStream out, PrintStream err) {
+        this.out = out;
+        this.err = err;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.out, System.err));
+    }
+
+    /**
+     * Runs one command.
+     *
+     * @return the process exit code
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        ScriptCli cli = new ScriptCli(out, err);
+        if (!cli.parseOptions(args)) {
+            err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        String command = cli.arguments.remove(0);
+        switch (command) {
+            case "list":
+                return cli.arguments.isEmpty() ? cli.list() : cli.usageError("list takes no arguments");
+            case "search":
+                return cli.arguments.isEmpty() ? cli.usageError("search needs a query") : cli.search();
+            case "export":
+                return cli.arguments.isEmpty() ? cli.usageError("export needs a directory") : cli.export();
+            case "sync":
+                return cli.arguments.size() == 1 ? cli.sync() : cli.usageError("sync needs exactly one directory");
+            case "help":
+            case "--help":
+                out.println(USAGE);
+                return EXIT_OK;
+            default:
+                return cli.usageError("Unknown command: " + command);
+        }
+    }
+
+    private boolean parseOptions(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--category":
+                    if (++i == args.length) return false;
+                    categoryName = args[i].toLowerCase(Locale.ROOT);
+                    break;
+                case "--all":
+                    all = true;
+                    break;
+                case "--offline":
+                    offline = true;
+                    break;
+                case "--json":
+                    json = true;
+                    break;
+                case "--jobs":
+                    if (++i == args.length) return false;
+                    try {
+                        jobs = Integer.parseInt(args[i]);
+                    } catch (NumberFormatException e) {
+                        jobs = 0;
+                    }
+                    if (jobs < 1) {
+                        err.println("--jobs must be a positive number");
+                        return false;
+                    }
+                    break;
+                default:
+                    if (args[i].startsWith("--") && !args[i].equals("--help")) {
+                        err.println("Unknown option: " + args[i]);
+                        return false;
+                    }
+                    arguments.add(args[i]);
+            }
+        }
+        return !arguments.isEmpty();
+    }
+
+    private int list() {
+        List<ScriptMetadata> catalog = loadCatalog();
+        if (catalog == null) return EXIT_CATALOG_UNAVAILABLE;
+        if (!resolveCategory()) return EXIT_USAGE;
+
+        List<ScriptMetadata> scripts = catalog.stream()
+                .filter(script -> category == null || script.getCategory() == category)
+                .sorted(Comparator.comparing(ScriptMetadata::getTitle))
+                .collect(Collectors.toList());
+        printScripts(scripts);
+        return EXIT_OK;
+    }
+
+    private int search() {
+        List<ScriptMetadata> catalog = loadCatalog();
+        if (catalog == null) return EXIT_CATALOG_UNAVAILABLE;
+        if (!resolveCategory()) return EXIT_USAGE;
+
+        SearchIndex index = ScriptService.takeCatalogIndex(catalog);
+        if (index == null) index = SearchIndex.build(catalog);
+        List<ScriptMetadata> scripts = index.search(String.join(" ", arguments), category);
+        printScripts(scripts);
+        return scripts.isEmpty() ? EXIT_NOT_FOUND : EXIT_OK;
+    }
+
+    private int export() {
+        Path directory = Paths.get(arguments.remove(0));
+        if (arguments.isEmpty() && !all && categoryName == null) {
+            return usageError("export needs script filenames, --category or --all");
+        }
+
+        List<ScriptMetadata> catalog = loadCatalog();
+        if (catalog == null) return EXIT_CATALOG_UNAVAILABLE;
+        if (!resolveCategory()) return EXIT_USAGE;
+
+        List<ScriptMetadata> scripts = selectScripts(catalog);
+        if (scripts == null) return EXIT_NOT_FOUND;
+
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            err.println("Cannot create " + directory + ": " + e.getMessage());
+            return EXIT_DOWNLOAD_FAILED;
+        }
+
+        List<DownloadTask> tasks = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (ScriptMetadata script : scripts) {
+            Path target = ScriptService.resolveScriptFile(directory, script);
+            if (target != null) {
+                tasks.add(new DownloadTask(script, target));
+            } else {
+                skipped.add(script.getFilename());
+            }
+        }
+
+        DownloadManager downloadManager = new DownloadManager(jobs, MAX_ATTEMPTS);
+        CountDownLatch finished = new CountDownLatch(1);
+        downloadManager.submit(tasks, new DownloadManager.Listener() {
+            @Override
+            public void taskUpdated(DownloadTask task) {
+                if (task.getState() == DownloadTask.State.RETRYING) {
+                    err.println("Retrying " + task.getScript().getFilename() + ": " + task.getError());
+                }
+            }
+
+            @Override
+            public void batchFinished(DownloadBatch batch) {
+                finished.countDown();
+            }
+        });
+
+        try {
+            finished.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            downloadManager.shutdown();
+        }
+
+        printExport(directory, tasks, skipped);
+        boolean failed = !skipped.isEmpty()
+                || tasks.stream().anyMatch(task -> task.getState() != DownloadTask.State.COMPLETED);
+        return failed ? EXIT_DOWNLOAD_FAILED : EXIT_OK;
+    }
+
+    private int sync() {
+        Path directory = Paths.get(arguments.get(0));
+
+        List<ScriptMetadata> catalog = loadCatalog();
+        if (catalog == null) return EXIT_CATALOG_UNAVAILABLE;
+        if (!resolveCategory()) return EXIT_USAGE;
+
+        Set<ScriptCategory> categories = category != null ? Collections.singleton(category) : null;
+
+        MirrorSync.Result result;
+        try {
+            result = new MirrorSync(directory, jobs).sync(catalog, categories);
+        } catch (IOException e) {
+            err.println("Sync failed: " + e.getMessage());
+            return EXIT_DOWNLOAD_FAILED;
+        }
+
+        if (json) {
+            out.println(new JSONObject()
+                    .put("directory", directory.toAbsolutePath().toString())
+                    .put("applied", result.isApplied())
+                    .put("added", result.getAdded())
+                    .put("updated", result.getUpdated())
+                    .put("removed", result.getRemoved())
+                    .put("unchanged", result.getUnchangedCount())
+                    .put("skipped", result.getSkipped())
+                    .put("failed", result.getFailed())
+                    .toString(2));
+        } else {
+            result.getAdded().forEach(path -> out.println("A\t" + path));
+            result.getUpdated().forEach(path -> out.println("U\t" + path));
+            result.getRemoved().forEach(path -> out.println("D\t" + path));
+            result.getFailed().forEach((path, error) -> out.println("FAILED\t" + path + "\t" + error));
+            result.getSkipped().forEach(path -> err.println("Skipped " + path + ": filename leaves its folder"));
+        }
+
+        if (!result.isApplied()) {
+            err.println("Sync incomplete, the mirror was left unchanged");
+            return EXIT_DOWNLOAD_FAILED;
+        }
+        err.println(result.getAdded().size() + " added, " + result.getUpdated().size() + " updated, "
+                + result.getRemoved().size() + " removed, " + result.getUnchangedCount() + " unchanged");
+        return EXIT_OK;
+    }
+
+    /**
+     * @return the scripts named on the command line (or the whole category / catalog),
+     * or {@code null} if a name did not match any script
+     */
+    private List<ScriptMetadata> selectScripts(List<ScriptMetadata> catalog) {
+        List<ScriptMetadata> candidates = catalog.stream()
+                .filter(script -> category == null || script.getCategory() == category)
+                .filter(script -> script.getFilename() != null)
+                .collect(Collectors.toList());
+        if (arguments.isEmpty()) return candidates;
+
+        Map<String, ScriptMetadata> byName = new HashMap<>();
+        for (ScriptMetadata script : candidates) {
+            byName.put(script.getFilename().toLowerCase(Locale.ROOT), script);
+            byName.putIfAbsent(script.getFilenameWithoutExtension().toLowerCase(Locale.ROOT), script);
+        }
+
+        List<ScriptMetadata> selected = new ArrayList<>();
+        boolean missing = false;
+        for (String name : arguments) {
+            ScriptMetadata script = byName.get(name.toLowerCase(Locale.ROOT));
+            if (script == null) {
+                err.println("No script named " + name + (category != null ? " in " + category.getFolderName() : ""));
+                missing = true;
+            } else if (!selected.contains(script)) {
+                selected.add(script);
+            }
+        }
+        return missing ? null : selected;
+    }
+
+    /**
+     * @return the latest catalog, the cached one when no source can be reached, or
+     * {@code null} (after reporting why) when neither is available
+     */
+    private List<ScriptMetadata> loadCatalog() {
+        List<ScriptMetadata> catalog = null;
+        if (!offline) {
+            List<ScriptMetadata> fresh = new ArrayList<>();
+            try {
+                if (ScriptService.revalidateScriptsMetadata(fresh::add)) catalog = fresh;
+            } catch (IOException e) {
+                err.println("Could not reach any source (" + e.getMessage() + "), using the cached catalog");
+            }
+        }
+
+        if (catalog == null) {
+            catalog = new ArrayList<>();
+            ScriptService.loadCachedScriptsMetadata(catalog::add);
+            if (catalog.isEmpty()) {
+                err.println("No script catalog available" + (offline ? " in the cache" : ""));
+                return null;
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Resolves {@code --category}; categories are only known once the catalog has been loaded.
+     *
+     * @return {@code false} (after reporting it) if the catalog has no such category
+     */
+    private boolean resolveCategory() {
+        if (categoryName == null) return true;
+        category = ScriptCategory.fromFolderName(categoryName);
+        if (category == null) err.println("Unknown category: " + categoryName);
+        return category != null;
+    }
+
+    private void printScripts(List<ScriptMetadata> scripts) {
+        if (json) {
+            JSONArray array = new JSONArray();
+            for (ScriptMetadata script : scripts) {
+                array.put(toJson(script));
+            }
+            out.println(array.toString(2));
+            return;
+        }
+        for (ScriptMetadata script : scripts) {
+            out.println(script.getCategory().getFolderName() + "\t" + script.getFilename() + "\t" + script.getTitle());
+        }
+    }
+
+    private void printExport(Path directory, List<DownloadTask> tasks, List<String> skipped) {
+        if (json) {
+            JSONArray results = new JSONArray();
+            int completed = 0;
+            for (DownloadTask task : tasks) {
+                boolean ok = task.getState() == DownloadTask.State.COMPLETED;
+                if (ok) completed++;
+                JSONObject result = toJson(task.getScript())
+                        .put("path", task.getTarget().toAbsolutePath().toString())
+                        .put("status", ok ? "completed" : "failed")
+                        .put("attempts", task.getAttempts());
+                if (!ok) result.put("error", task.getError());
+                results.put(result);
+            }
+            out.println(new JSONObject()
+                    .put("directory", directory.toAbsolutePath().toString())
+                    .put("completed", completed)
+                    .put("failed", tasks.size() - completed)
+                    .put("skipped", skipped)
+                    .put("scripts", results)
+                    .toString(2));
+            return;
+        }
+        for (DownloadTask task : tasks) {
+            if (task.getState() == DownloadTask.State.COMPLETED) {
+                out.println("OK\t" + task.getTarget());
+            } else {
+                out.println("FAILED\t" + task.getTarget() + "\t" + task.getError());
+            }
+        }
+        skipped.forEach(filename -> err.println("Skipped " + filename + ": filename leaves the directory"));
+    }
+
+    private static JSONObject toJson(ScriptMetadata script) {
+        return new JSONObject()
+                .put("title", script.getTitle())
+                .put("filename", script.getFilename())
+                .put("category", script.getCategory().getFolderName())
+                .put("shortDescription", script.getShortDescription())
+                .put("description", script.getDescription())
+                .put("url", script.getRawScriptUrl());
+    }
+
+    private int usageError(String message) {
+        err.println(message);
+        err.println(USAGE);
+        return EXIT_USAGE;
+    }
+}
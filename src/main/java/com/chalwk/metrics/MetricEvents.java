@@ -0,0 +1,108 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Custom JFR events, so a recording of a real session ({@code -XX:StartFlightRecording})
+ * shows the browser's own operations next to GC, I/O and thread activity. Each event's
+ * duration spans the operation; when no recording is running they cost next to nothing.
+ */
+public final class MetricEvents {
+
+    private static final String CATEGORY = "HSP Script Browser";
+
+    private MetricEvents() {
+    }
+
+    @Name("com.chalwk.MetadataFetch")
+    @Label("Metadata Fetch")
+    @Description("Conditional request, download and parse of one source's metadata.json")
+    @Category(CATEGORY)
+    public static class MetadataFetch extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Status Code")
+        public int status;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Scripts")
+        public int scripts;
+    }
+
+    @Name("com.chalwk.MetadataParse")
+    @Label("Metadata Parse")
+    @Description("Parse of a cached or local metadata.json")
+    @Category(CATEGORY)
+    public static class MetadataParse extends Event {
+        @Label("Source")
+        public String source;
+
+        @Label("Scripts")
+        public int scripts;
+    }
+
+    @Name("com.chalwk.IndexBuild")
+    @Label("Index Build")
+    @Category(CATEGORY)
+    public static class IndexBuild extends Event {
+        @Label("Index")
+        public String index;
+
+        @Label("Documents")
+        public int documents;
+    }
+
+    @Name("com.chalwk.SearchQuery")
+    @Label("Search Query")
+    @Description("One filter query run by the search scheduler")
+    @Category(CATEGORY)
+    public static class SearchQuery extends Event {
+        @Label("Results")
+        public int results;
+    }
+
+    @Name("com.chalwk.ListPaint")
+    @Label("List Paint")
+    @Category(CATEGORY)
+    public static class ListPaint extends Event {
+        @Label("Rows")
+        public int rows;
+    }
+
+    @Name("com.chalwk.ScriptDownload")
+    @Label("Script Download")
+    @Category(CATEGORY)
+    public static class ScriptDownload extends Event {
+        @Label("URL")
+        public String url;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("From Store")
+        @Description("Served from the local script store without a download")
+        public boolean fromStore;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+}
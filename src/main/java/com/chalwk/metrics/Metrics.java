@@ -0,0 +1,117 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.metrics;
+
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Process-wide registry of the browser's timings and totals. Everything is recorded in
+ * memory as it happens; the diagnostics window and {@link #toJson()} read snapshots.
+ * Matching JFR events (see {@link MetricEvents}) carry per-operation detail into recordings.
+ */
+public final class Metrics {
+
+    private static final List<Histogram> histograms = new ArrayList<>();
+    private static final List<Counter> counters = new ArrayList<>();
+
+    public static final Histogram STARTUP = histogram("startup.firstpaint",
+            "Process start to the first painted script list");
+    public static final Histogram METADATA_FETCH = histogram("metadata.fetch",
+            "metadata.json request, download and parse, per source");
+    public static final Histogram METADATA_PARSE = histogram("metadata.parse",
+            "Parse of a cached or local metadata.json");
+    public static final Histogram CATALOG_REFRESH = histogram("catalog.refresh",
+            "Background catalog revalidation and diff");
+    public static final Histogram INDEX_BUILD = histogram("index.build", "Search index build");
+    public static final Histogram CODE_INDEX_BUILD = histogram("codeindex.build", "Code index build and write");
+    public static final Histogram SEARCH_QUERY = histogram("search.query", "Filter query, per keystroke batch");
+    public static final Histogram LIST_PAINT = histogram("list.paint", "Script list repaint");
+    public static final Histogram DOWNLOAD = histogram("download", "Script download, from the store or network");
+
+    public static final Counter METADATA_BYTES = counter("metadata.bytes", "metadata.json bytes received");
+    public static final Counter METADATA_FAILURES = counter("metadata.failures", "Sources that failed or timed out");
+    public static final Counter CATALOG_CHANGES = counter("catalog.changes",
+            "Scripts added, removed or changed by background refreshes");
+    public static final Counter DOWNLOAD_BYTES = counter("download.bytes", "Script bytes written");
+    public static final Counter DOWNLOAD_FAILURES = counter("download.failures", "Failed download attempts");
+
+    private Metrics() {
+    }
+
+    private static Histogram histogram(String name, String description) {
+        Histogram histogram = new Histogram(name, description);
+        histograms.add(histogram);
+        return histogram;
+    }
+
+    private static Counter counter(String name, String description) {
+        Counter counter = new Counter(name, description);
+        counters.add(counter);
+        return counter;
+    }
+
+    public static List<Histogram> getHistograms() {
+        return Collections.unmodifiableList(histograms);
+    }
+
+    public static List<Counter> getCounters() {
+        return Collections.unmodifiableList(counters);
+    }
+
+    /**
+     * @return bytes per second while a download was in progress, summed over concurrent downloads
+     */
+    public static double getDownloadThroughput() {
+        long nanos = DOWNLOAD.getTotalNanos();
+        return nanos > 0 ? DOWNLOAD_BYTES.get() * 1e9 / nanos : 0;
+    }
+
+    public static void reset() {
+        histograms.forEach(Histogram::reset);
+        counters.forEach(Counter::reset);
+    }
+
+    /**
+     * @return every metric, with durations in milliseconds
+     */
+    public static JSONObject toJson() {
+        JSONObject timings = new JSONObject();
+        for (Histogram histogram : histograms) {
+            timings.put(histogram.getName(), new JSONObject()
+                    .put("description", histogram.getDescription())
+                    .put("count", histogram.getCount())
+                    .put("meanMs", toMillis(histogram.getMeanNanos()))
+                    .put("p50Ms", toMillis(histogram.getPercentileNanos(0.50)))
+                    .put("p95Ms", toMillis(histogram.getPercentileNanos(0.95)))
+                    .put("p99Ms", toMillis(histogram.getPercentileNanos(0.99)))
+                    .put("maxMs", toMillis(histogram.getMaxNanos()))
+                    .put("totalMs", toMillis(histogram.getTotalNanos())));
+        }
+
+        JSONObject totals = new JSONObject();
+        for (Counter counter : counters) {
+            totals.put(counter.getName(), counter.get());
+        }
+
+        return new JSONObject()
+                .put("timestamp", System.currentTimeMillis())
+                .put("timings", timings)
+                .put("counters", totals)
+                .put("downloadBytesPerSecond", Math.round(getDownloadThroughput()));
+    }
+
+    public static double toMillis(double nanos) {
+        return Math.round(nanos / 1e3) / 1e3;
+    }
+}
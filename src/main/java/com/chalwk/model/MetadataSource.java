@@ -0,0 +1,130 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.model;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * A place a catalog is read from: a metadata.json plus the folder its scripts live under
+ * ({@code <scripts>/<category>/<filename>}). Sources are GitHub repositories (upstream or a
+ * fork), any HTTP mirror with the same layout, or a local checkout.
+ */
+public final class MetadataSource {
+
+    public static final Duration DEFAULT_TIMEOUT =
+            Duration.ofSeconds(Long.getLong("hsp.source.timeoutSeconds", 15));
+
+    public static final String UPSTREAM_LOCATION = "github:Chalwk/HALO-SCRIPT-PROJECTS@master";
+
+    public static final MetadataSource UPSTREAM = fromLocation("upstream", UPSTREAM_LOCATION, DEFAULT_TIMEOUT);
+
+    private final String name;
+    private final String metadataUrl;
+    private final String scriptBaseUrl;
+    private final String browseBaseUrl;
+    private final Duration timeout;
+
+    private MetadataSource(String name, String metadataUrl, String scriptBaseUrl, String browseBaseUrl,
+                           Duration timeout) {
+        this.name = name;
+        this.metadataUrl = metadataUrl;
+        this.scriptBaseUrl = scriptBaseUrl;
+        this.browseBaseUrl = browseBaseUrl;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Creates a source from one of:
+     * <ul>
+     * <li>{@code github:<owner>/<repository>[@<branch>]} - a GitHub repository, branch master by default</li>
+     * <li>an http(s) URL of a metadata.json, or of the folder holding it - a mirror</li>
+     * <li>a local directory or {@code file:} URL - a checkout</li>
+     * </ul>
+     * In every case scripts are expected under {@code sapp/} next to metadata.json.
+     *
+     * @throws IllegalArgumentException if {@code location} is malformed
+     */
+    public static MetadataSource fromLocation(String name, String location, Duration timeout) {
+        location = location.trim();
+
+        if (location.startsWith("github:")) {
+            String repository = location.substring("github:".length());
+            String branch = "master";
+            int at = repository.indexOf('@');
+            if (at >= 0) {
+                branch = repository.substring(at + 1);
+                repository = repository.substring(0, at);
+            }
+            if (repository.split("/").length != 2 || branch.isEmpty()) {
+                throw new IllegalArgumentException("Expected github:<owner>/<repository>[@<branch>]: " + location);
+            }
+            String raw = "https://raw.githubusercontent.com/" + repository + "/" + branch + "/";
+            return new MetadataSource(name, raw + "metadata.json", raw + "sapp/",
+                    "https://github.com/" + repository + "/blob/" + branch + "/sapp/", timeout);
+        }
+
+        if (location.startsWith("http://") || location.startsWith("https://")) {
+            String base = location.endsWith(".json")
+                    ? location.substring(0, location.lastIndexOf('/') + 1)
+                    : (location.endsWith("/") ? location : location + "/");
+            String metadata = location.endsWith(".json") ? location : base + "metadata.json";
+            return new MetadataSource(name, metadata, base + "sapp/", null, timeout);
+        }
+
+        Path directory = location.startsWith("file:")
+                ? Paths.get(URI.create(location))
+                : Paths.get(location);
+        directory = directory.toAbsolutePath().normalize();
+        String scripts = directory.resolve("sapp").toUri().toString();
+        return new MetadataSource(name, directory.resolve("metadata.json").toUri().toString(),
+                scripts.endsWith("/") ? scripts : scripts + "/", null, timeout);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMetadataUrl() {
+        return metadataUrl;
+    }
+
+    /**
+     * @return the URL scripts are resolved against, ending in {@code /}
+     */
+    public String getScriptBaseUrl() {
+        return scriptBaseUrl;
+    }
+
+    /**
+     * @return the web page scripts are browsed under, or {@code null} when the source has none
+     */
+    public String getBrowseBaseUrl() {
+        return browseBaseUrl;
+    }
+
+    /**
+     * @return how long a catalog load waits for this source before using its cached copy
+     */
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public boolean isLocal() {
+        return metadataUrl.startsWith("file:");
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
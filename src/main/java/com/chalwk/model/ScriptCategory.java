@@ -9,17 +9,38 @@
 
 package com.chalwk.model;
 
-public enum ScriptCategory {
-    ATTRACTIVE("Attractive", "attractive"),
-    CUSTOM_GAMES("Custom Games", "custom_games"),
-    UTILITY("Utility", "utility");
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * A script category, i.e. one folder of a metadata source. The three upstream categories
+ * always exist; any other folder a source publishes is registered when it is first seen.
+ * There is exactly one instance per folder name, so categories compare with {@code ==}.
+ */
+public final class ScriptCategory {
+
+    // Folder names become directories in mirrors, so they must stay a single plain path segment
+    private static final Pattern FOLDER_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final Map<String, ScriptCategory> registry = new ConcurrentHashMap<>();
+    private static final List<ScriptCategory> ordered = new ArrayList<>();
+
+    public static final ScriptCategory ATTRACTIVE = register("Attractive", "attractive");
+    public static final ScriptCategory CUSTOM_GAMES = register("Custom Games", "custom_games");
+    public static final ScriptCategory UTILITY = register("Utility", "utility");
 
     private final String displayName;
     private final String folderName;
+    private final String searchName;
 
-    ScriptCategory(String displayName, String folderName) {
+    private ScriptCategory(String displayName, String folderName) {
         this.displayName = displayName;
         this.folderName = folderName;
+        this.searchName = displayName.toLowerCase(Locale.ROOT);
     }
 
     public String getDisplayName() {
@@ -30,8 +51,71 @@ public enum ScriptCategory {
         return folderName;
     }
 
+    /**
+     * @return the lowercase display name matched by search
+     */
+    public String getSearchName() {
+        return searchName;
+    }
+
+    /**
+     * @return every category registered so far, the upstream ones first
+     */
+    public static ScriptCategory[] values() {
+        synchronized (ordered) {
+            return ordered.toArray(new ScriptCategory[0]);
+        }
+    }
+
+    /**
+     * @return the registered category for {@code folderName}, or {@code null}
+     */
+    public static ScriptCategory fromFolderName(String folderName) {
+        return folderName != null ? registry.get(folderName) : null;
+    }
+
+    /**
+     * Returns the category for {@code folderName}, registering it on first use with a display
+     * name derived from the folder ("custom_games" becomes "Custom Games").
+     *
+     * @return the category, or {@code null} if {@code folderName} is not a plain folder name
+     */
+    public static ScriptCategory discover(String folderName) {
+        ScriptCategory category = fromFolderName(folderName);
+        if (category != null) return category;
+        if (folderName == null || !FOLDER_NAME.matcher(folderName).matches()) return null;
+        return register(toDisplayName(folderName), folderName);
+    }
+
+    private static ScriptCategory register(String displayName, String folderName) {
+        synchronized (ordered) {
+            ScriptCategory existing = registry.get(folderName);
+            if (existing != null) return existing;
+
+            ScriptCategory category = new ScriptCategory(displayName, folderName);
+            ordered.add(category);
+            registry.put(folderName, category);
+            return category;
+        }
+    }
+
+    private static String toDisplayName(String folderName) {
+        StringBuilder name = new StringBuilder(folderName.length());
+        boolean wordStart = true;
+        for (char c : folderName.toCharArray()) {
+            if (c == '_' || c == '-') {
+                name.append(' ');
+                wordStart = true;
+            } else {
+                name.append(wordStart ? Character.toUpperCase(c) : c);
+                wordStart = false;
+            }
+        }
+        return name.toString().trim();
+    }
+
     @Override
     public String toString() {
         return displayName;
     }
-}
\ No newline at end of file
+}
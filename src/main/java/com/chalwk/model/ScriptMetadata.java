@@ -9,69 +9,228 @@
 
 package com.chalwk.model;
 
-public class ScriptMetadata {
+import java.util.Locale;
+
+/**
+ * One catalog entry. An entry never changes what it returns, so it can be shared between
+ * threads: the lowercase search fields are folded once here instead of per index build or
+ * query, and the URLs are built on first use and then kept, since the list model, store and
+ * downloads all key on them.
+ * <p>
+ * Entries restored from a catalog snapshot are backed by {@link Fields} instead, and decode
+ * each text field (and fold its search form) the first time it is asked for, so e.g. a
+ * description is only read when something shows or scores it.
+ * <p>
+ * Values computed on first use are cached without locking, like {@code String.hashCode()}:
+ * threads that race at worst compute the same value twice, and a {@code String} is safe to
+ * read through a data race. A field a record does not have is cached as {@link #ABSENT}.
+ */
+public final class ScriptMetadata {
+
+    /**
+     * Text fields of lazily decoded entries, looked up by record number.
+     */
+    public interface Fields {
+        int TITLE = 0;
+        int SHORT_DESCRIPTION = 1;
+        int DESCRIPTION = 2;
+        int FILENAME = 3;
+
+        /**
+         * @return field {@code field} of record {@code record}, or {@code null} if it has none
+         */
+        String get(int record, int field);
+    }
+
+    private final MetadataSource source;
+    private final ScriptCategory category;
+    private final Fields fields;
+    private final int record;
+
+    // Marks a decoded field that the record does not have, so it is not decoded again
+    private static final String ABSENT = new String();
+
+    // Decoded lazily when backed by fields; racy but idempotent, like String.hashCode()
     private String title;
     private String shortDescription;
     private String description;
     private String filename;
-    private ScriptCategory category;
+    private String filenameWithoutExtension;
 
-    public ScriptMetadata() {
-    }
+    // Lowercase search fields, never null once set
+    private String searchTitle;
+    private String searchShortDescription;
+    private String searchDescription;
+    private String searchFilename;
 
-    // Getters and setters
-    public String getTitle() {
-        return title;
+    // Built lazily
+    private String rawScriptUrl;
+    private String gitHubUrl;
+
+    public ScriptMetadata(ScriptCategory category, String title, String shortDescription,
+                          String description, String filename) {
+        this(MetadataSource.UPSTREAM, category, title, shortDescription, description, filename, null);
     }
 
-    public void setTitle(String title) {
-        this.title = title;
+    /**
+     * Creates an entry of {@code source} whose fields, raw and folded, are deduplicated
+     * through {@code pool}.
+     */
+    public ScriptMetadata(MetadataSource source, ScriptCategory category, String title, String shortDescription,
+                          String description, String filename, StringPool pool) {
+        this.source = source;
+        this.category = category;
+        this.fields = null;
+        this.record = -1;
+        this.title = pooled(pool, title);
+        this.shortDescription = pooled(pool, shortDescription);
+        this.description = pooled(pool, description);
+        this.filename = pooled(pool, filename);
+        this.filenameWithoutExtension = filename != null ? pooled(pool, filename.replace(".lua", "")) : null;
+
+        this.searchTitle = fold(pool, this.title);
+        this.searchShortDescription = fold(pool, this.shortDescription);
+        this.searchDescription = fold(pool, this.description);
+        this.searchFilename = fold(pool, this.filenameWithoutExtension);
     }
 
-    public String getShortDescription() {
-        return shortDescription;
+    /**
+     * Creates an entry of {@code source} whose text fields are read from record
+     * {@code record} of {@code fields} on first use.
+     */
+    public ScriptMetadata(MetadataSource source, ScriptCategory category, Fields fields, int record) {
+        this.source = source;
+        this.category = category;
+        this.fields = fields;
+        this.record = record;
     }
 
-    public void setShortDescription(String shortDescription) {
-        this.shortDescription = shortDescription;
+    public String getTitle() {
+        String value = title;
+        if (value == null && fields != null) {
+            value = decode(Fields.TITLE);
+            title = value;
+        }
+        return value != ABSENT ? value : null;
     }
 
-    public String getDescription() {
-        return description;
+    public String getShortDescription() {
+        String value = shortDescription;
+        if (value == null && fields != null) {
+            value = decode(Fields.SHORT_DESCRIPTION);
+            shortDescription = value;
+        }
+        return value != ABSENT ? value : null;
     }
 
-    public void setDescription(String description) {
-        this.description = description;
+    public String getDescription() {
+        String value = description;
+        if (value == null && fields != null) {
+            value = decode(Fields.DESCRIPTION);
+            description = value;
+        }
+        return value != ABSENT ? value : null;
     }
 
     public String getFilename() {
-        return filename;
+        String value = filename;
+        if (value == null && fields != null) {
+            value = decode(Fields.FILENAME);
+            filename = value;
+        }
+        return value != ABSENT ? value : null;
     }
 
-    public void setFilename(String filename) {
-        this.filename = filename;
+    private String decode(int field) {
+        String value = fields.get(record, field);
+        return value != null ? value : ABSENT;
     }
 
     public ScriptCategory getCategory() {
         return category;
     }
 
-    public void setCategory(ScriptCategory category) {
-        this.category = category;
+    public MetadataSource getSource() {
+        return source;
     }
 
+    /**
+     * @return the page showing this script, or its raw URL when the source has no web view
+     */
     public String getGitHubUrl() {
-        return "https://github.com/Chalwk/HALO-SCRIPT-PROJECTS/blob/master/sapp/" +
-                category.getFolderName() + "/" + filename;
+        String url = gitHubUrl;
+        if (url == null) {
+            url = source.getBrowseBaseUrl() != null
+                    ? source.getBrowseBaseUrl() + category.getFolderName() + "/" + getFilename()
+                    : getRawScriptUrl();
+            gitHubUrl = url;
+        }
+        return url;
     }
 
     public String getRawScriptUrl() {
-        return "https://raw.githubusercontent.com/Chalwk/HALO-SCRIPT-PROJECTS/master/sapp/" +
-                category.getFolderName() + "/" + filename;
+        String url = rawScriptUrl;
+        if (url == null) {
+            url = source.getScriptBaseUrl() + category.getFolderName() + "/" + getFilename();
+            rawScriptUrl = url;
+        }
+        return url;
     }
 
     public String getFilenameWithoutExtension() {
-        if (filename == null) return null;
-        return filename.replace(".lua", "");
+        String value = filenameWithoutExtension;
+        if (value == null && getFilename() != null) {
+            value = getFilename().replace(".lua", "");
+            filenameWithoutExtension = value;
+        }
+        return value;
+    }
+
+    public String getSearchTitle() {
+        String value = searchTitle;
+        if (value == null) {
+            value = fold(null, getTitle());
+            searchTitle = value;
+        }
+        return value;
+    }
+
+    public String getSearchShortDescription() {
+        String value = searchShortDescription;
+        if (value == null) {
+            value = fold(null, getShortDescription());
+            searchShortDescription = value;
+        }
+        return value;
+    }
+
+    public String getSearchDescription() {
+        String value = searchDescription;
+        if (value == null) {
+            value = fold(null, getDescription());
+            searchDescription = value;
+        }
+        return value;
+    }
+
+    /**
+     * @return the lowercase filename without its extension
+     */
+    public String getSearchFilename() {
+        String value = searchFilename;
+        if (value == null) {
+            value = fold(null, getFilenameWithoutExtension());
+            searchFilename = value;
+        }
+        return value;
+    }
+
+    private static String pooled(StringPool pool, String text) {
+        return pool != null ? pool.get(text) : text;
+    }
+
+    private static String fold(StringPool pool, String text) {
+        // toLowerCase returns the same instance when nothing changes
+        return text != null ? pooled(pool, text.toLowerCase(Locale.ROOT)) : "";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Deduplicates equal strings for the lifetime of one catalog load, so repeated values
+ * (shared descriptions, titles that are already lowercase) are held once. Unlike
+ * {@link String#intern()} nothing outlives the pool.
+ */
+public final class StringPool {
+    private final Map<String, String> strings = new HashMap<>();
+
+    /**
+     * @return the pooled instance equal to {@code text}, or {@code null} for {@code null}
+     */
+    public String get(String text) {
+        if (text == null) return null;
+        String pooled = strings.putIfAbsent(text, text);
+        return pooled != null ? pooled : text;
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Inverted index over the Lua source of every script, persisted in a compact binary file
+ * and read through a memory mapping, so reloading it costs a page-in rather than a parse.
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header    magic, version, documentCount, termCount
+ * documents documentCount x (url, sha256)            as length-prefixed UTF-8
+ * terms     termCount x (termOffset, postingsOffset, postingsCount), sorted by term bytes
+ * strings   length-prefixed term bytes
+ * postings  ascending document ids
+ * </pre>
+ * The fixed-width term table is binary searched in place; only the document table is
+ * decoded on load.
+ */
+public final class CodeIndex {
+
+    private static final int MAGIC = 0x48535043; // "HSPC"
+    private static final int VERSION = 1;
+    private static final int TERM_ENTRY_SIZE = 12;
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    private static final Set<String> LUA_KEYWORDS = new HashSet<>(Arrays.asList(
+            "and", "break", "do", "else", "elseif", "end", "false", "for", "function", "goto", "if", "in",
+            "local", "nil", "not", "or", "repeat", "return", "then", "true", "until", "while"));
+
+    private final ByteBuffer buffer;
+    private final String[] urls;
+    private final String[] hashes;
+    private final int termCount;
+    private final int termTableOffset;
+
+    private CodeIndex(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a code index (or an unsupported version)");
+        }
+        int documentCount = buffer.getInt(8);
+        termCount = buffer.getInt(12);
+
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(16);
+        urls = new String[documentCount];
+        hashes = new String[documentCount];
+        for (int doc = 0; doc < documentCount; doc++) {
+            urls[doc] = readString(reader);
+            hashes[doc] = readString(reader);
+        }
+        termTableOffset = reader.position();
+    }
+
+    public static CodeIndex load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CodeIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int getDocumentCount() {
+        return urls.length;
+    }
+
+    public int getTermCount() {
+        return termCount;
+    }
+
+    /**
+     * @return whether this index was built from exactly these documents, in any order
+     */
+    public boolean isBuiltFrom(Map<String, String> hashesByUrl) {
+        if (urls.length != hashesByUrl.size()) return false;
+        for (int doc = 0; doc < urls.length; doc++) {
+            if (!hashes[doc].equals(hashesByUrl.get(urls[doc]))) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the URLs of the scripts whose source contains, for every whitespace-separated
+     * term of {@code query}, an identifier starting with that term (case-insensitive).
+     */
+    public Set<String> search(String query) {
+        String normalized = query.toLowerCase(Locale.ROOT).trim();
+        if (normalized.isEmpty()) return new HashSet<>();
+
+        BitSet matches = null;
+        for (String term : normalized.split("\\s+")) {
+            BitSet termMatches = documentsWithPrefix(term.getBytes(StandardCharsets.UTF_8));
+            if (matches == null) {
+                matches = termMatches;
+            } else {
+                matches.and(termMatches);
+            }
+            if (matches.isEmpty()) break;
+        }
+
+        Set<String> result = new HashSet<>();
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            result.add(urls[doc]);
+        }
+        return result;
+    }
+
+    private BitSet documentsWithPrefix(byte[] prefix) {
+        BitSet docs = new BitSet(urls.length);
+
+        // Lower bound of the prefix in the sorted term table, then walk while terms still match
+        int low = 0;
+        int high = termCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareTerm(mid, prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (int term = low; term < termCount && termStartsWith(term, prefix); term++) {
+            int entry = termTableOffset + term * TERM_ENTRY_SIZE;
+            int postingsOffset = buffer.getInt(entry + 4);
+            int postingsCount = buffer.getInt(entry + 8);
+            for (int i = 0; i < postingsCount; i++) {
+                docs.set(buffer.getInt(postingsOffset + i * 4));
+            }
+        }
+        return docs;
+    }
+
+    private int compareTerm(int term, byte[] key) {
+        int offset = buffer.getInt(termTableOffset + term * TERM_ENTRY_SIZE);
+        int length = buffer.getShort(offset) & 0xFFFF;
+        int limit = Math.min(length, key.length);
+        for (int i = 0; i < limit; i++) {
+            int cmp = Integer.compare(buffer.get(offset + 2 + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private String term(int term) {
+        int offset = buffer.getInt(termTableOffset + term * TERM_ENTRY_SIZE);
+        byte[] bytes = new byte[buffer.getShort(offset) & 0xFFFF];
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(offset + 2);
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean termStartsWith(int term, byte[] prefix) {
+        int offset = buffer.getInt(termTableOffset + term * TERM_ENTRY_SIZE);
+        int length = buffer.getShort(offset) & 0xFFFF;
+        if (length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer.get(offset + 2 + i) != prefix[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Splits Lua source into lowercased identifiers, plus the dotted/colon-qualified names
+     * they form (e.g. {@code cb.event_join}), leaving out language keywords.
+     */
+    public static Set<String> tokenize(String source) {
+        Set<String> tokens = new LinkedHashSet<>();
+        StringBuilder qualified = new StringBuilder();
+        int length = source.length();
+        int i = 0;
+
+        while (i < length) {
+            char c = source.charAt(i);
+            if (!isIdentifierStart(c)) {
+                i++;
+                continue;
+            }
+
+            int start = i;
+            while (i < length && isIdentifierPart(source.charAt(i))) i++;
+            String identifier = source.substring(start, i).toLowerCase(Locale.ROOT);
+
+            // Only a single separator joins a chain, so "a..b" (concatenation) stays apart
+            boolean continuesChain = start > 1 && qualified.length() > 0
+                    && (source.charAt(start - 1) == '.' || source.charAt(start - 1) == ':')
+                    && isIdentifierPart(source.charAt(start - 2));
+            if (!continuesChain) qualified.setLength(0);
+
+            if (!LUA_KEYWORDS.contains(identifier)) {
+                if (identifier.length() >= MIN_TOKEN_LENGTH) tokens.add(identifier);
+                if (qualified.length() > 0) {
+                    qualified.append(source.charAt(start - 1)).append(identifier);
+                    tokens.add(qualified.toString());
+                } else {
+                    qualified.append(identifier);
+                }
+            } else {
+                qualified.setLength(0);
+            }
+
+            if (i >= length || (source.charAt(i) != '.' && source.charAt(i) != ':')) {
+                qualified.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return isIdentifierStart(c) || (c >= '0' && c <= '9');
+    }
+
+    private static String readString(ByteBuffer reader) {
+        byte[] bytes = new byte[reader.getShort() & 0xFFFF];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Collects documents and writes them out in the format {@link #load} maps.
+     */
+    public static class Builder {
+        private final List<String> urls = new ArrayList<>();
+        private final List<String> hashes = new ArrayList<>();
+        private final Map<String, PostingsBuilder> postings = new TreeMap<>();
+
+        /**
+         * Copies the documents of {@code index} whose hash is still the one in
+         * {@code hashesByUrl}, without their source. Call it before adding any document.
+         *
+         * @return the URLs of the documents copied
+         */
+        public Set<String> addUnchanged(CodeIndex index, Map<String, String> hashesByUrl) {
+            Set<String> copied = new HashSet<>();
+            int[] copies = new int[index.urls.length];
+            for (int doc = 0; doc < copies.length; doc++) {
+                copies[doc] = -1;
+                if (index.hashes[doc].equals(hashesByUrl.get(index.urls[doc]))) {
+                    copies[doc] = urls.size();
+                    urls.add(index.urls[doc]);
+                    hashes.add(index.hashes[doc]);
+                    copied.add(index.urls[doc]);
+                }
+            }
+            if (copied.isEmpty()) return copied;
+
+            // Copies keep their relative order, so the postings stay ascending
+            for (int term = 0; term < index.termCount; term++) {
+                int entry = index.termTableOffset + term * TERM_ENTRY_SIZE;
+                int postingsOffset = index.buffer.getInt(entry + 4);
+                int postingsCount = index.buffer.getInt(entry + 8);
+                PostingsBuilder docs = null;
+                for (int i = 0; i < postingsCount; i++) {
+                    int copy = copies[index.buffer.getInt(postingsOffset + i * 4)];
+                    if (copy < 0) continue;
+                    if (docs == null) docs = postings.computeIfAbsent(index.term(term), k -> new PostingsBuilder());
+                    docs.add(copy);
+                }
+            }
+            return copied;
+        }
+
+        public void addDocument(String url, String sha256, String source) {
+            int doc = urls.size();
+            urls.add(url);
+            hashes.add(sha256);
+            for (String token : tokenize(source)) {
+                if (token.length() > Short.MAX_VALUE) continue;
+                postings.computeIfAbsent(token, k -> new PostingsBuilder()).add(doc);
+            }
+        }
+
+        public void write(OutputStream outputStream) throws IOException {
+            DataOutputStream out = new DataOutputStream(outputStream);
+
+            // Header and document table
+            byte[][] documentBytes = new byte[urls.size() * 2][];
+            int documentsSize = 0;
+            for (int doc = 0; doc < urls.size(); doc++) {
+                documentBytes[doc * 2] = urls.get(doc).getBytes(StandardCharsets.UTF_8);
+                documentBytes[doc * 2 + 1] = hashes.get(doc).getBytes(StandardCharsets.UTF_8);
+                documentsSize += 4 + documentBytes[doc * 2].length + documentBytes[doc * 2 + 1].length;
+            }
+
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(urls.size());
+            out.writeInt(postings.size());
+            for (byte[] bytes : documentBytes) {
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+
+            // TreeMap order of ASCII identifiers matches unsigned byte order
+            List<byte[]> termBytes = new ArrayList<>(postings.size());
+            int stringsSize = 0;
+            for (String term : postings.keySet()) {
+                byte[] bytes = term.getBytes(StandardCharsets.UTF_8);
+                termBytes.add(bytes);
+                stringsSize += 2 + bytes.length;
+            }
+
+            int termTableOffset = 16 + documentsSize;
+            int stringOffset = termTableOffset + postings.size() * TERM_ENTRY_SIZE;
+            int postingsOffset = stringOffset + stringsSize;
+
+            int index = 0;
+            for (PostingsBuilder docs : postings.values()) {
+                out.writeInt(stringOffset);
+                out.writeInt(postingsOffset);
+                out.writeInt(docs.size());
+                stringOffset += 2 + termBytes.get(index++).length;
+                postingsOffset += docs.size() * 4;
+            }
+            for (byte[] bytes : termBytes) {
+                out.writeShort(bytes.length);
+                out.write(bytes);
+            }
+            for (PostingsBuilder docs : postings.values()) {
+                for (int doc : docs.toArray()) {
+                    out.writeInt(doc);
+                }
+            }
+            out.flush();
+        }
+    }
+}
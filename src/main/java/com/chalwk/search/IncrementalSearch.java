@@ -0,0 +1,39 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+
+import java.util.List;
+
+/**
+ * Search session that remembers the previous result. When the user keeps typing
+ * ("cap" to "capt" to "captu"), each new query only re-checks the survivors of the
+ * last one and reuses the scores of the terms it already had.
+ * <p>
+ * Not thread-safe; drive it from a single thread such as the {@link SearchScheduler} worker.
+ */
+public class IncrementalSearch {
+
+    private ResultSet last;
+
+    public List<ScriptMetadata> search(SearchIndex index, String query, ScriptCategory category) {
+        String[] terms = SearchIndex.parseQuery(query);
+
+        ResultSet previous = last != null && last.isRefinedBy(index, category, terms) ? last : null;
+        last = index.execute(terms, category, previous);
+        return last.getScripts();
+    }
+
+    public void reset() {
+        last = null;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+/**
+ * Levenshtein automaton for one query term, simulated bit-parallel (Wu-Manber): it accepts a
+ * token that contains the term with at most {@code maxEdits} insertions, deletions or
+ * substitutions, reading each character of the token once with a few word operations per
+ * allowed edit.
+ * <p>
+ * Bit {@code i} of {@code states[d]} means "the first {@code i + 1} characters of the term
+ * end here with {@code d} edits". The empty prefix is active everywhere, which is what lets a
+ * match start at any position of the token.
+ */
+final class LevenshteinAutomaton {
+
+    static final int MAX_TERM_LENGTH = 63;
+
+    private final String term;
+    private final int maxEdits;
+    private final long accept;
+    private final long[] asciiMasks = new long[128];
+
+    LevenshteinAutomaton(String term, int maxEdits) {
+        if (term.isEmpty() || term.length() > MAX_TERM_LENGTH || maxEdits >= term.length()) {
+            throw new IllegalArgumentException("Unsupported term or edit distance: " + term + ", " + maxEdits);
+        }
+        this.term = term;
+        this.maxEdits = maxEdits;
+        accept = 1L << (term.length() - 1);
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            if (c < asciiMasks.length) asciiMasks[c] |= 1L << i;
+        }
+    }
+
+    /**
+     * How many edits a term of {@code length} characters may be matched with: none up to three
+     * characters, where nearly every token would be one edit away, then one, then two from
+     * seven characters on - never more than {@code maxEdits}.
+     */
+    static int allowedEdits(int length, int maxEdits) {
+        if (length > MAX_TERM_LENGTH) return 0;
+        int edits = length <= 3 ? 0 : length <= 6 ? 1 : 2;
+        return Math.max(0, Math.min(edits, maxEdits));
+    }
+
+    /**
+     * @return whether a whitespace-separated token of {@code text} contains the term with at
+     * most the allowed number of edits
+     */
+    boolean matches(String text) {
+        long[] states = new long[maxEdits + 1];
+        reset(states);
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isSpace(c)) {
+                reset(states);
+                continue;
+            }
+
+            long mask = c < asciiMasks.length ? asciiMasks[c] : mask(c);
+            long previous = states[0];
+            states[0] = ((previous << 1) | 1) & mask;
+            long active = states[0];
+            for (int d = 1; d <= maxEdits; d++) {
+                long old = states[d];
+                states[d] = (((old << 1) | 1) & mask)  // match
+                        | previous                      // insertion of c
+                        | (previous << 1) | 1           // substitution by c
+                        | (states[d - 1] << 1);         // deletion of a term character
+                previous = old;
+                active |= states[d];
+            }
+            if ((active & accept) != 0) return true;
+        }
+        return false;
+    }
+
+    private void reset(long[] states) {
+        // Reaching a prefix before any character costs one deletion per character
+        for (int d = 0; d <= maxEdits; d++) {
+            states[d] = (1L << d) - 1;
+        }
+    }
+
+    private long mask(char c) {
+        long mask = 0;
+        for (int i = 0; i < term.length(); i++) {
+            if (term.charAt(i) == c) mask |= 1L << i;
+        }
+        return mask;
+    }
+
+    // The characters SearchIndex.splitTerms splits on
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
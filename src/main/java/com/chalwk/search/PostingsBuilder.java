@@ -0,0 +1,34 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import java.util.Arrays;
+
+/**
+ * Growable, de-duplicating list of ascending document ids.
+ */
+final class PostingsBuilder {
+    private int[] docs = new int[4];
+    private int size;
+
+    void add(int doc) {
+        if (size > 0 && docs[size - 1] == doc) return;
+        if (size == docs.length) docs = Arrays.copyOf(docs, size * 2);
+        docs[size++] = doc;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(docs, size);
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import com.chalwk.model.ScriptMetadata;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+import java.util.function.Predicate;
+
+/**
+ * Search results, most relevant first, ranked a page at a time as they are read. The first
+ * page is picked with a bounded heap when the list is created, in O(n log K) for n matches
+ * and a page of K; every further page is picked the same way from the matches ranked below
+ * the last one, each page twice the size of the one before, so reading to the end costs
+ * about as much as one full sort.
+ * <p>
+ * Each match is ranked by a single {@code long}: the score in the high half and the
+ * complement of the document id in the low half. Keys are therefore unique, and ties go
+ * to the document earlier in the catalog.
+ */
+public final class RankedList extends AbstractList<ScriptMetadata> implements RandomAccess {
+
+    static final int PAGE_SIZE = 100;
+
+    private final ScriptMetadata[] scripts;
+    private final int size;
+
+    // ranked[0, rankedCount) in order; remaining holds the keys of every match ranked lower
+    private long[] ranked = new long[0];
+    private int rankedCount;
+    private long[] remaining;
+    private int nextPageSize = PAGE_SIZE;
+
+    /**
+     * @param scripts the index's documents
+     * @param docs    the matching document ids
+     * @param scores  the score of each match
+     */
+    RankedList(ScriptMetadata[] scripts, int[] docs, int[] scores) {
+        this.scripts = scripts;
+        size = docs.length;
+        remaining = new long[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            remaining[i] = key(scores[i], docs[i]);
+        }
+        rankNextPage(PAGE_SIZE);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized ScriptMetadata get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        if (index >= rankedCount) rankNextPage(index + 1 - rankedCount);
+        return scripts[doc(ranked[index])];
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        return positionOf(script -> script == o);
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        // Every document appears once
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Finds the best-ranked script that {@code match} accepts without ranking any further
+     * page: its position is the number of matches that outrank it.
+     *
+     * @return the script's position, or -1 if no script is accepted
+     */
+    public synchronized int positionOf(Predicate<ScriptMetadata> match) {
+        for (int i = 0; i < rankedCount; i++) {
+            if (match.test(scripts[doc(ranked[i])])) return i;
+        }
+
+        long best = -1;
+        for (long key : remaining) {
+            if (key > best && match.test(scripts[doc(key)])) best = key;
+        }
+        if (best < 0) return -1;
+
+        int position = rankedCount;
+        for (long key : remaining) {
+            if (key > best) position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return whether every match has been ranked, so reading any element is free
+     */
+    public synchronized boolean isFullyRanked() {
+        return rankedCount == size;
+    }
+
+    /**
+     * Ranks at least {@code minimum} more matches, and at least the next page.
+     */
+    private void rankNextPage(int minimum) {
+        int count = Math.min(Math.max(minimum, nextPageSize), remaining.length);
+        if (count == 0) return;
+        nextPageSize = nextPageSize * 2;
+
+        long[] page;
+        if (count == remaining.length) {
+            page = remaining;
+            remaining = new long[0];
+        } else {
+            page = top(remaining, count);
+            // Keys are unique, so everything below the page's lowest key is what is left
+            long lowest = page[0];
+            long[] rest = new long[remaining.length - count];
+            int j = 0;
+            for (long key : remaining) {
+                if (key < lowest) rest[j++] = key;
+            }
+            remaining = rest;
+        }
+
+        Arrays.sort(page);
+        if (ranked.length < rankedCount + page.length) {
+            ranked = Arrays.copyOf(ranked, Math.max(rankedCount + page.length, ranked.length * 2));
+        }
+        for (int i = page.length - 1; i >= 0; i--) {
+            ranked[rankedCount++] = page[i];
+        }
+    }
+
+    /**
+     * @return the {@code count} largest of {@code keys}, as a min-heap (smallest first)
+     */
+    private static long[] top(long[] keys, int count) {
+        long[] heap = Arrays.copyOf(keys, count);
+        for (int i = count / 2 - 1; i >= 0; i--) {
+            siftDown(heap, i);
+        }
+        for (int i = count; i < keys.length; i++) {
+            if (keys[i] > heap[0]) {
+                heap[0] = keys[i];
+                siftDown(heap, 0);
+            }
+        }
+        return heap;
+    }
+
+    private static void siftDown(long[] heap, int i) {
+        long key = heap[i];
+        int half = heap.length / 2;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < heap.length && heap[child + 1] < heap[child]) child++;
+            if (key <= heap[child]) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = key;
+    }
+
+    private static long key(int score, int doc) {
+        return ((long) score << 32) | (~doc & 0xFFFFFFFFL);
+    }
+
+    private static int doc(long key) {
+        return ~(int) key;
+    }
+}
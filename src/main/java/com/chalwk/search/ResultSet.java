@@ -0,0 +1,65 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of one query against a {@link SearchIndex}: the surviving document ids in
+ * catalog order, the score each query term contributed to them, and the ranked scripts.
+ */
+final class ResultSet {
+    final SearchIndex index;
+    final ScriptCategory category;
+    final String[] terms;
+    final int[] docs;
+    final Map<String, int[]> termScores;
+    private final List<ScriptMetadata> scripts;
+
+    ResultSet(SearchIndex index, ScriptCategory category, String[] terms, int[] docs,
+              Map<String, int[]> termScores, List<ScriptMetadata> scripts) {
+        this.index = index;
+        this.category = category;
+        this.terms = terms;
+        this.docs = docs;
+        this.termScores = termScores;
+        this.scripts = scripts;
+    }
+
+    List<ScriptMetadata> getScripts() {
+        return scripts;
+    }
+
+    /**
+     * A query refines this result when each of these terms is contained in one of the new
+     * terms, and the new term allows no more edits than the old one: a token containing the
+     * longer term with some edits contains the shorter term with at most as many, so the new
+     * matches are necessarily a subset of these.
+     */
+    boolean isRefinedBy(SearchIndex index, ScriptCategory category, String[] newTerms) {
+        if (this.index != index || this.category != category || terms.length == 0) return false;
+
+        for (String term : terms) {
+            boolean covered = false;
+            for (String newTerm : newTerms) {
+                if (newTerm.contains(term) && index.allowedEdits(newTerm) <= index.allowedEdits(term)) {
+                    covered = true;
+                    break;
+                }
+            }
+            if (!covered) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,481 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import com.chalwk.metrics.MetricEvents;
+import com.chalwk.metrics.Metrics;
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Search index built once per catalog load. When a refresh changes part of the catalog,
+ * the index is {@link #update updated} rather than rebuilt.
+ * <p>
+ * Every searchable field is lowercased up front and split on whitespace into tokens. Query
+ * terms never contain whitespace, so a field contains a term exactly when one of its tokens
+ * does; the n-gram index over the token vocabulary therefore yields every substring match
+ * without scanning the catalog.
+ * <p>
+ * Typos are tolerated the same way: a term of four or more characters also matches tokens
+ * that contain it with a few edits (see {@link LevenshteinAutomaton#allowedEdits}, capped by
+ * {@code -Dhsp.search.maxEdits}, 2 by default and 0 to turn it off). Candidate tokens share
+ * enough n-grams with the term to be within that distance, and only they are run through
+ * the term's automaton, so the cost depends on the vocabulary, not on the descriptions.
+ * As in scoring, a typo only counts in the title or filename; documents that reach such a
+ * token through another field alone are checked and left out.
+ * <p>
+ * An index can be saved as a section of a catalog snapshot ({@link #write}) and restored
+ * from it ({@link #read}) without decoding anything up front: the {@link Vocabulary} is
+ * searched in place, and field text is read from the scripts, which decode it lazily.
+ */
+public class SearchIndex {
+
+    // Above this share of changed documents, an update rebuilds the index instead of layering
+    private static final int MAX_LAYER_FRACTION = 8;
+
+    static final int MAX_EDITS = Integer.getInteger("hsp.search.maxEdits", 2);
+
+    private final ScriptMetadata[] scripts;
+    private final ScriptCategory[] categories;
+    private final Vocabulary vocabulary;
+
+    // Set on an updated index: the documents it inherits, and which of those are gone
+    private final SearchIndex base;
+    private final BitSet removed;
+
+    private SearchIndex(ScriptMetadata[] scripts, SearchIndex base, BitSet removed, Vocabulary vocabulary) {
+        this.scripts = scripts;
+        this.base = base;
+        this.removed = removed;
+        this.vocabulary = vocabulary;
+
+        categories = new ScriptCategory[scripts.length];
+        for (int doc = 0; doc < scripts.length; doc++) {
+            categories[doc] = scripts[doc].getCategory();
+        }
+    }
+
+    /**
+     * Collects the vocabulary of {@code scripts} from index {@code from} on, numbering those
+     * documents from 0.
+     */
+    private static Vocabulary collect(ScriptMetadata[] scripts, int from) {
+        Map<String, PostingsBuilder> tokens = new HashMap<>();
+
+        for (int doc = 0; doc < scripts.length - from; doc++) {
+            ScriptMetadata script = scripts[from + doc];
+            for (String field : new String[]{script.getSearchTitle(), script.getSearchFilename(),
+                    script.getSearchDescription(), script.getSearchShortDescription(),
+                    script.getCategory().getSearchName()}) {
+                for (String token : splitTerms(field)) {
+                    if (token.isEmpty()) continue;
+                    tokens.computeIfAbsent(token, k -> new PostingsBuilder()).add(doc);
+                }
+            }
+        }
+
+        return new Vocabulary.Built(tokens);
+    }
+
+    public static SearchIndex build(List<ScriptMetadata> scripts) {
+        MetricEvents.IndexBuild event = new MetricEvents.IndexBuild();
+        event.begin();
+        long start = System.nanoTime();
+
+        ScriptMetadata[] documents = scripts.toArray(new ScriptMetadata[0]);
+        SearchIndex index = new SearchIndex(documents, null, null, collect(documents, 0));
+
+        Metrics.INDEX_BUILD.recordSince(start);
+        event.index = "search";
+        event.documents = index.size();
+        event.commit();
+        return index;
+    }
+
+    /**
+     * Restores an index written by {@link #write} for exactly {@code scripts}, in order.
+     * {@code section} is read in place, so it must stay valid for as long as the index is used.
+     */
+    public static SearchIndex read(ByteBuffer section, List<ScriptMetadata> scripts) {
+        return new SearchIndex(scripts.toArray(new ScriptMetadata[0]), null, null, Vocabulary.read(section));
+    }
+
+    /**
+     * Writes this index as a snapshot section that {@link #read} restores. Only a built or
+     * restored index can be written, not an {@link #update updated} one.
+     */
+    public void write(DataOutputStream out) throws IOException {
+        if (base != null) throw new IllegalStateException("An updated index cannot be written");
+        Vocabulary.write(vocabulary, out);
+    }
+
+    /**
+     * Returns an index of this one's scripts without {@code outgoing} and with
+     * {@code incoming} appended, leaving this index untouched for queries still running on it.
+     * <p>
+     * Only the incoming scripts are indexed: the result layers them over this index's base
+     * documents and masks out the outgoing ones. Once the layer and the mask together
+     * exceed an eighth of the base, the whole index is rebuilt instead.
+     */
+    public SearchIndex update(Collection<ScriptMetadata> outgoing, List<ScriptMetadata> incoming) {
+        SearchIndex root = base != null ? base : this;
+        Set<ScriptMetadata> leaving = Collections.newSetFromMap(new IdentityHashMap<>());
+        leaving.addAll(outgoing);
+
+        BitSet rootRemoved = removed != null ? (BitSet) removed.clone() : new BitSet(root.scripts.length);
+        for (int doc = 0; doc < root.scripts.length; doc++) {
+            if (leaving.contains(root.scripts[doc])) rootRemoved.set(doc);
+        }
+        List<ScriptMetadata> layer = new ArrayList<>();
+        for (int doc = root.scripts.length; doc < scripts.length; doc++) {
+            if (!leaving.contains(scripts[doc])) layer.add(scripts[doc]);
+        }
+        layer.addAll(incoming);
+
+        if ((rootRemoved.cardinality() + layer.size()) * MAX_LAYER_FRACTION > root.scripts.length) {
+            List<ScriptMetadata> live = new ArrayList<>(root.scripts.length + layer.size());
+            for (int doc = 0; doc < root.scripts.length; doc++) {
+                if (!rootRemoved.get(doc)) live.add(root.scripts[doc]);
+            }
+            live.addAll(layer);
+            return build(live);
+        }
+
+        ScriptMetadata[] documents = Arrays.copyOf(root.scripts, root.scripts.length + layer.size());
+        for (int i = 0; i < layer.size(); i++) {
+            documents[root.scripts.length + i] = layer.get(i);
+        }
+        return new SearchIndex(documents, root, rootRemoved, collect(documents, root.scripts.length));
+    }
+
+    public int size() {
+        return scripts.length - (removed != null ? removed.cardinality() : 0);
+    }
+
+    /**
+     * Returns the scripts of {@code category} that match every term of {@code query},
+     * most relevant first. Ties keep catalog order.
+     */
+    public List<ScriptMetadata> search(String query, ScriptCategory category) {
+        return execute(parseQuery(query), category, null).getScripts();
+    }
+
+    /**
+     * Returns the scripts among {@code scripts} with every term of {@code query} in one of
+     * their fields, in the given order. This is a plain scan, without typo tolerance or
+     * ranking, for a catalog that is still loading and has no index yet.
+     */
+    public static List<ScriptMetadata> filter(List<ScriptMetadata> scripts, String query) {
+        String[] terms = parseQuery(query);
+        List<ScriptMetadata> matches = new ArrayList<>();
+        scripts:
+        for (ScriptMetadata script : scripts) {
+            for (String term : terms) {
+                if (!script.getSearchTitle().contains(term) && !script.getSearchFilename().contains(term)
+                        && !script.getSearchDescription().contains(term)
+                        && !script.getSearchShortDescription().contains(term)
+                        && !script.getCategory().getSearchName().contains(term)) {
+                    continue scripts;
+                }
+            }
+            matches.add(script);
+        }
+        return matches;
+    }
+
+    /**
+     * Evaluates {@code terms} against the whole index or, when {@code previous} is given,
+     * only against its survivors. The caller guarantees that every match of {@code terms}
+     * is also a match of {@code previous}; per-term scores shared with it are reused.
+     */
+    ResultSet execute(String[] terms, ScriptCategory category, ResultSet previous) {
+        int[] docs = previous == null
+                ? matchingDocuments(terms, category)
+                : refineDocuments(previous, terms);
+
+        Map<String, int[]> termScores = new HashMap<>();
+        int[] scores = new int[docs.length];
+        for (String term : terms) {
+            int[] perDoc = termScores.get(term);
+            if (perDoc == null) {
+                int[] cached = previous != null ? previous.termScores.get(term) : null;
+                perDoc = cached != null
+                        ? project(previous.docs, cached, docs)
+                        : termRelevance(docs, term);
+                termScores.put(term, perDoc);
+            }
+            // Repeated terms count once per occurrence, as they always have
+            for (int i = 0; i < docs.length; i++) {
+                scores[i] += perDoc[i];
+            }
+        }
+
+        return new ResultSet(this, category, terms, docs, termScores, rank(docs, scores));
+    }
+
+    static String[] parseQuery(String query) {
+        String normalized = normalize(query).trim();
+        if (normalized.isEmpty()) return new String[0];
+        return splitTerms(normalized);
+    }
+
+    private int[] matchingDocuments(String[] terms, ScriptCategory category) {
+        if (terms.length == 0) return new int[0];
+
+        BitSet candidates = null;
+        for (String term : terms) {
+            BitSet termMatches = matchingDocuments(term);
+            if (candidates == null) {
+                candidates = termMatches;
+            } else {
+                candidates.and(termMatches);
+            }
+            if (candidates.isEmpty()) break;
+        }
+
+        PostingsBuilder docs = new PostingsBuilder();
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (category == null || categories[doc] == category) docs.add(doc);
+        }
+        return docs.toArray();
+    }
+
+    private int[] refineDocuments(ResultSet previous, String[] terms) {
+        List<String> previousTerms = Arrays.asList(previous.terms);
+
+        // Terms the previous query already had are satisfied by every survivor
+        List<BitSet> newTermMatches = new ArrayList<>();
+        for (String term : terms) {
+            if (!previousTerms.contains(term)) newTermMatches.add(matchingDocuments(term));
+        }
+
+        PostingsBuilder docs = new PostingsBuilder();
+        survivors:
+        for (int doc : previous.docs) {
+            for (BitSet matches : newTermMatches) {
+                if (!matches.get(doc)) continue survivors;
+            }
+            docs.add(doc);
+        }
+        return docs.toArray();
+    }
+
+    /**
+     * @return how many edits {@code term} may be matched with in this index
+     */
+    int allowedEdits(String term) {
+        return LevenshteinAutomaton.allowedEdits(term.length(), MAX_EDITS);
+    }
+
+    /**
+     * @return the automaton matching {@code term} with typos, or {@code null} if it allows none
+     */
+    private LevenshteinAutomaton automaton(String term) {
+        int edits = allowedEdits(term);
+        return edits > 0 ? new LevenshteinAutomaton(term, edits) : null;
+    }
+
+    private int[] termRelevance(int[] docs, String term) {
+        LevenshteinAutomaton automaton = automaton(term);
+        int[] scores = new int[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            scores[i] = calculateRelevance(docs[i], term, automaton);
+        }
+        return scores;
+    }
+
+    private List<ScriptMetadata> rank(int[] docs, int[] scores) {
+        return new RankedList(scripts, docs, scores);
+    }
+
+    private BitSet matchingDocuments(String term) {
+        BitSet matches;
+        int offset = 0;
+        if (base != null) {
+            // Inherited documents match as they did, unless they have since been removed
+            matches = base.matchingDocuments(term);
+            matches.andNot(removed);
+            offset = base.scripts.length;
+        } else {
+            matches = new BitSet(scripts.length);
+        }
+
+        // Matches on any field, through the vocabulary n-grams
+        LevenshteinAutomaton automaton = automaton(term);
+        if (automaton == null) {
+            for (int token : tokensContaining(term)) {
+                for (int doc : vocabulary.postings(token)) {
+                    matches.set(offset + doc);
+                }
+            }
+            return matches;
+        }
+
+        // Typos only count in the title or filename, as in calculateRelevance()
+        BitSet rejected = new BitSet();
+        for (int token : tokensWithin(term, automaton)) {
+            boolean exact = vocabulary.token(token).contains(term);
+            for (int doc : vocabulary.postings(token)) {
+                int id = offset + doc;
+                if (matches.get(id)) continue;
+                if (exact) {
+                    matches.set(id);
+                    continue;
+                }
+                if (rejected.get(id)) continue;
+
+                ScriptMetadata script = scripts[id];
+                if (automaton.matches(script.getSearchTitle()) || automaton.matches(script.getSearchFilename())) {
+                    matches.set(id);
+                } else {
+                    rejected.set(id);
+                }
+            }
+        }
+
+        return matches;
+    }
+
+    private int[] tokensContaining(String term) {
+        if (term.length() <= Vocabulary.MAX_GRAM) {
+            int[] tokens = vocabulary.tokensWithGram(term);
+            return tokens != null ? tokens : new int[0];
+        }
+
+        // Start from the rarest trigram of the term and verify the candidates with contains()
+        int[] rarest = null;
+        for (int i = 0; i + Vocabulary.MAX_GRAM <= term.length(); i++) {
+            int[] tokens = vocabulary.tokensWithGram(term.substring(i, i + Vocabulary.MAX_GRAM));
+            if (tokens == null) return new int[0];
+            if (rarest == null || tokens.length < rarest.length) rarest = tokens;
+        }
+
+        PostingsBuilder result = new PostingsBuilder();
+        for (int token : rarest) {
+            if (vocabulary.token(token).contains(term)) result.add(token);
+        }
+        return result.toArray();
+    }
+
+    /**
+     * Ids of the tokens containing the term of {@code automaton} within its edits. A token
+     * that does shares at least {@code m - q + 1 - edits * q} of the term's {@code m - q + 1}
+     * q-grams (counted per position), so only tokens reaching that count in the gram postings
+     * are run through the automaton. q is the longest gram size that leaves a positive count.
+     */
+    private int[] tokensWithin(String term, LevenshteinAutomaton automaton) {
+        int edits = allowedEdits(term);
+        int length = term.length();
+        int q = Vocabulary.MAX_GRAM;
+        while (q > 1 && length - q + 1 - edits * q < 1) q--;
+        int threshold = length - q + 1 - edits * q;
+
+        List<int[]> gramTokens = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i + q <= length; i++) {
+            int[] tokens = vocabulary.tokensWithGram(term.substring(i, i + q));
+            if (tokens == null) continue;
+            gramTokens.add(tokens);
+            total += tokens.length;
+        }
+        if (gramTokens.size() < threshold) return new int[0];
+
+        int[] candidates = new int[total];
+        int k = 0;
+        for (int[] tokens : gramTokens) {
+            System.arraycopy(tokens, 0, candidates, k, tokens.length);
+            k += tokens.length;
+        }
+        Arrays.sort(candidates);
+
+        PostingsBuilder result = new PostingsBuilder();
+        for (int i = 0; i < candidates.length; ) {
+            int token = candidates[i];
+            int count = 0;
+            while (i < candidates.length && candidates[i] == token) {
+                count++;
+                i++;
+            }
+            if (count >= threshold && automaton.matches(vocabulary.token(token))) result.add(token);
+        }
+        return result.toArray();
+    }
+
+    int calculateRelevance(int doc, String term) {
+        return calculateRelevance(doc, term, automaton(term));
+    }
+
+    private int calculateRelevance(int doc, String term, LevenshteinAutomaton automaton) {
+        ScriptMetadata script = scripts[doc];
+        String title = script.getSearchTitle();
+        String filename = script.getSearchFilename();
+        String description = script.getSearchDescription();
+        String shortDescription = script.getSearchShortDescription();
+        String category = categories[doc].getSearchName();
+
+        int score = 0;
+
+        // Exact matches (highest score)
+        if (title.equals(term)) score += 100;
+        if (filename.equals(term)) score += 100;
+
+        // Contains matches (medium score)
+        if (title.contains(term)) score += 50;
+        if (filename.contains(term)) score += 50;
+        if (description.contains(term)) score += 10;
+        if (shortDescription.contains(term)) score += 10;
+        if (category.contains(term)) score += 5;
+
+        // Matches with typos (lowest score); descriptions are left out, they are long
+        if (automaton != null) {
+            if (automaton.matches(title)) score += 3;
+            if (automaton.matches(filename)) score += 3;
+        }
+
+        return score;
+    }
+
+    static String normalize(String text) {
+        return text != null ? text.toLowerCase(Locale.ROOT) : "";
+    }
+
+    static String[] splitTerms(String text) {
+        return text.split("\\s+");
+    }
+
+    /**
+     * Picks the values of {@code fromDocs} for the ids in {@code toDocs}, which must be an
+     * ascending subset of {@code fromDocs}.
+     */
+    private static int[] project(int[] fromDocs, int[] values, int[] toDocs) {
+        int[] result = new int[toDocs.length];
+        int j = 0;
+        for (int i = 0; i < toDocs.length; i++) {
+            while (fromDocs[j] != toDocs[i]) j++;
+            result[i] = values[j];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import com.chalwk.metrics.MetricEvents;
+import com.chalwk.metrics.Metrics;
+
+import javax.swing.*;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs search queries off the EDT. Typed input is debounced, every query is stamped with a
+ * generation number, and only the result of the most recent generation is handed back to
+ * the EDT; anything older is cancelled or dropped.
+ * <p>
+ * {@link #schedule} and {@link #runNow} must be called on the EDT.
+ */
+public class SearchScheduler<T> {
+
+    private final Consumer<T> publisher;
+    private final Timer debounceTimer;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+
+    private Callable<T> pendingQuery;
+    private Future<?> runningQuery;
+
+    public SearchScheduler(int debounceMillis, Consumer<T> publisher) {
+        this.publisher = publisher;
+
+        debounceTimer = new Timer(debounceMillis, e -> dispatch(pendingQuery, generation.get()));
+        debounceTimer.setRepeats(false);
+
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "search-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues {@code query} to run once input has been quiet for the debounce delay.
+     */
+    public void schedule(Callable<T> query) {
+        pendingQuery = query;
+        generation.incrementAndGet();
+        debounceTimer.restart();
+    }
+
+    /**
+     * Runs {@code query} without waiting, superseding anything scheduled before it.
+     */
+    public void runNow(Callable<T> query) {
+        debounceTimer.stop();
+        pendingQuery = null;
+        dispatch(query, generation.incrementAndGet());
+    }
+
+    public void shutdown() {
+        debounceTimer.stop();
+        executor.shutdownNow();
+    }
+
+    private void dispatch(Callable<T> query, long queryGeneration) {
+        if (query == null) return;
+        pendingQuery = null;
+
+        if (runningQuery != null) {
+            runningQuery.cancel(false);
+        }
+
+        runningQuery = executor.submit(() -> {
+            if (queryGeneration != generation.get()) return;
+
+            MetricEvents.SearchQuery event = new MetricEvents.SearchQuery();
+            event.begin();
+            long start = System.nanoTime();
+            T result;
+            try {
+                result = query.call();
+            } catch (Exception e) {
+                e.printStackTrace();
+                return;
+            }
+            Metrics.SEARCH_QUERY.recordSince(start);
+            event.results = result instanceof Collection ? ((Collection<?>) result).size() : -1;
+            event.commit();
+
+            if (queryGeneration != generation.get()) return;
+            SwingUtilities.invokeLater(() -> {
+                if (queryGeneration == generation.get()) {
+                    publisher.accept(result);
+                }
+            });
+        });
+    }
+}
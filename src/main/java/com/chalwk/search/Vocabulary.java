@@ -0,0 +1,264 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.search;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The token side of a {@link SearchIndex}: every distinct token with its postings, and the
+ * 1- to 3-grams of the tokens. Tokens are addressed by id. A vocabulary is either built in
+ * memory or read in place from a snapshot section.
+ * <p>
+ * Section layout (big-endian):
+ * <pre>
+ * header  tokenCount, gramCount
+ * tokens  tokenCount + 1 x (stringOffset, intOffset)
+ * grams   gramCount + 1 x (stringOffset, intOffset), sorted by gram bytes
+ * strings UTF-8 of every token, then of every gram
+ * ints    token postings, then the token ids of every gram
+ * </pre>
+ * Each table ends in a sentinel entry, so an entry's range runs to the next one's offset.
+ */
+interface Vocabulary {
+
+    int MAX_GRAM = 3;
+
+    int size();
+
+    String token(int id);
+
+    /**
+     * @return ascending ids of the documents holding token {@code id}
+     */
+    int[] postings(int id);
+
+    /**
+     * @return ascending ids of the tokens containing {@code gram}, or {@code null} if none does
+     */
+    int[] tokensWithGram(String gram);
+
+    static Vocabulary read(ByteBuffer section) {
+        return new Mapped(section);
+    }
+
+    /**
+     * Writes {@code vocabulary} in the section format {@link #read} maps.
+     */
+    static void write(Vocabulary vocabulary, DataOutputStream out) throws IOException {
+        int tokenCount = vocabulary.size();
+        byte[][] tokenBytes = new byte[tokenCount][];
+        Map<String, PostingsBuilder> grams = new HashMap<>();
+        for (int id = 0; id < tokenCount; id++) {
+            String token = vocabulary.token(id);
+            tokenBytes[id] = token.getBytes(StandardCharsets.UTF_8);
+            addGrams(grams, token, id);
+        }
+
+        List<byte[]> gramBytes = new ArrayList<>(grams.size());
+        Map<byte[], int[]> gramTokens = new HashMap<>(grams.size() * 2);
+        grams.forEach((gram, builder) -> {
+            byte[] bytes = gram.getBytes(StandardCharsets.UTF_8);
+            gramBytes.add(bytes);
+            gramTokens.put(bytes, builder.toArray());
+        });
+        gramBytes.sort(Arrays::compareUnsigned);
+
+        out.writeInt(tokenCount);
+        out.writeInt(gramBytes.size());
+
+        int stringOffset = 0;
+        int intOffset = 0;
+        for (int id = 0; id < tokenCount; id++) {
+            out.writeInt(stringOffset);
+            out.writeInt(intOffset);
+            stringOffset += tokenBytes[id].length;
+            intOffset += vocabulary.postings(id).length;
+        }
+        out.writeInt(stringOffset);
+        out.writeInt(intOffset);
+
+        for (byte[] gram : gramBytes) {
+            out.writeInt(stringOffset);
+            out.writeInt(intOffset);
+            stringOffset += gram.length;
+            intOffset += gramTokens.get(gram).length;
+        }
+        out.writeInt(stringOffset);
+        out.writeInt(intOffset);
+
+        for (byte[] bytes : tokenBytes) {
+            out.write(bytes);
+        }
+        for (byte[] bytes : gramBytes) {
+            out.write(bytes);
+        }
+
+        for (int id = 0; id < tokenCount; id++) {
+            writeInts(out, vocabulary.postings(id));
+        }
+        for (byte[] gram : gramBytes) {
+            writeInts(out, gramTokens.get(gram));
+        }
+    }
+
+    static void addGrams(Map<String, PostingsBuilder> grams, String token, int id) {
+        for (int n = 1; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= token.length(); i++) {
+                grams.computeIfAbsent(token.substring(i, i + n), k -> new PostingsBuilder()).add(id);
+            }
+        }
+    }
+
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * A vocabulary collected from a catalog.
+     */
+    final class Built implements Vocabulary {
+        private final String[] tokens;
+        private final int[][] postings;
+        private final Map<String, int[]> gramTokens;
+
+        Built(Map<String, PostingsBuilder> tokenPostings) {
+            tokens = tokenPostings.keySet().toArray(new String[0]);
+            postings = new int[tokens.length][];
+            Map<String, PostingsBuilder> grams = new HashMap<>();
+            for (int id = 0; id < tokens.length; id++) {
+                postings[id] = tokenPostings.get(tokens[id]).toArray();
+                addGrams(grams, tokens[id], id);
+            }
+
+            gramTokens = new HashMap<>(grams.size() * 2);
+            grams.forEach((gram, builder) -> gramTokens.put(gram, builder.toArray()));
+        }
+
+        @Override
+        public int size() {
+            return tokens.length;
+        }
+
+        @Override
+        public String token(int id) {
+            return tokens[id];
+        }
+
+        @Override
+        public int[] postings(int id) {
+            return postings[id];
+        }
+
+        @Override
+        public int[] tokensWithGram(String gram) {
+            return gramTokens.get(gram);
+        }
+    }
+
+    /**
+     * A vocabulary read in place from a section; nothing is decoded up front.
+     */
+    final class Mapped implements Vocabulary {
+        private static final int ENTRY_SIZE = 8;
+
+        private final ByteBuffer buffer;
+        private final int tokenCount;
+        private final int gramCount;
+        private final int tokenTable;
+        private final int gramTable;
+        private final int stringsOffset;
+        private final int intsOffset;
+
+        Mapped(ByteBuffer section) {
+            buffer = section;
+            tokenCount = buffer.getInt(0);
+            gramCount = buffer.getInt(4);
+
+            tokenTable = 8;
+            gramTable = tokenTable + (tokenCount + 1) * ENTRY_SIZE;
+            stringsOffset = gramTable + (gramCount + 1) * ENTRY_SIZE;
+            intsOffset = stringsOffset + buffer.getInt(gramTable + gramCount * ENTRY_SIZE);
+        }
+
+        @Override
+        public int size() {
+            return tokenCount;
+        }
+
+        @Override
+        public String token(int id) {
+            int entry = tokenTable + id * ENTRY_SIZE;
+            int start = buffer.getInt(entry);
+            byte[] bytes = new byte[buffer.getInt(entry + ENTRY_SIZE) - start];
+
+            // Absolute reads on a duplicate, since queries run on any thread
+            ByteBuffer reader = buffer.duplicate();
+            reader.position(stringsOffset + start);
+            reader.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int[] postings(int id) {
+            int entry = tokenTable + id * ENTRY_SIZE;
+            return ints(buffer.getInt(entry + 4), buffer.getInt(entry + ENTRY_SIZE + 4));
+        }
+
+        @Override
+        public int[] tokensWithGram(String gram) {
+            byte[] key = gram.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = gramCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = compareGram(mid, key);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    int entry = gramTable + mid * ENTRY_SIZE;
+                    return ints(buffer.getInt(entry + 4), buffer.getInt(entry + ENTRY_SIZE + 4));
+                }
+            }
+            return null;
+        }
+
+        private int compareGram(int gram, byte[] key) {
+            int entry = gramTable + gram * ENTRY_SIZE;
+            int start = stringsOffset + buffer.getInt(entry);
+            int length = stringsOffset + buffer.getInt(entry + ENTRY_SIZE) - start;
+            int limit = Math.min(length, key.length);
+            for (int i = 0; i < limit; i++) {
+                int cmp = Integer.compare(buffer.get(start + i) & 0xFF, key[i] & 0xFF);
+                if (cmp != 0) return cmp;
+            }
+            return Integer.compare(length, key.length);
+        }
+
+        private int[] ints(int from, int to) {
+            int[] values = new int[to - from];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = buffer.getInt(intsOffset + (from + i) * 4);
+            }
+            return values;
+        }
+    }
+}
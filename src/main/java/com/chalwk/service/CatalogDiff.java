@@ -0,0 +1,178 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.model.ScriptMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Difference between the catalog on screen and a freshly loaded one. Scripts are matched by
+ * category and filename, like {@link ScriptService} merges sources; a matched script whose
+ * source or text changed counts as changed.
+ * <p>
+ * The updated catalog keeps every unchanged script as the same instance, in its old order,
+ * and appends the changed and added scripts in the fresh catalog's order. That is also the
+ * order {@link com.chalwk.search.SearchIndex#update} numbers them in.
+ */
+public final class CatalogDiff {
+
+    private final List<ScriptMetadata> added = new ArrayList<>();
+    private final List<ScriptMetadata> removed = new ArrayList<>();
+    private final List<ScriptMetadata> changedFrom = new ArrayList<>();
+    private final List<ScriptMetadata> changedTo = new ArrayList<>();
+    private final List<ScriptMetadata> updatedCatalog;
+
+    private CatalogDiff(List<ScriptMetadata> current, List<ScriptMetadata> fresh) {
+        Map<String, ScriptMetadata> freshByKey = new HashMap<>();
+        List<String> freshKeys = keys(fresh);
+        for (int i = 0; i < fresh.size(); i++) {
+            freshByKey.put(freshKeys.get(i), fresh.get(i));
+        }
+
+        Set<ScriptMetadata> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<ScriptMetadata> changed = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ScriptMetadata> kept = new ArrayList<>(current.size());
+        List<String> currentKeys = keys(current);
+        for (int i = 0; i < current.size(); i++) {
+            ScriptMetadata script = current.get(i);
+            ScriptMetadata replacement = freshByKey.get(currentKeys.get(i));
+            if (replacement == null) {
+                removed.add(script);
+                continue;
+            }
+            matched.add(replacement);
+            if (sameContent(script, replacement)) {
+                kept.add(script);
+            } else {
+                changedFrom.add(script);
+                changed.add(replacement);
+            }
+        }
+
+        List<ScriptMetadata> appended = new ArrayList<>();
+        for (ScriptMetadata script : fresh) {
+            if (changed.contains(script)) {
+                changedTo.add(script);
+                appended.add(script);
+            } else if (!matched.contains(script)) {
+                added.add(script);
+                appended.add(script);
+            }
+        }
+
+        if (isEmpty()) {
+            updatedCatalog = current;
+        } else {
+            kept.addAll(appended);
+            updatedCatalog = Collections.unmodifiableList(kept);
+        }
+    }
+
+    /**
+     * Compares {@code fresh} against {@code current}, which is left untouched.
+     */
+    public static CatalogDiff compute(List<ScriptMetadata> current, List<ScriptMetadata> fresh) {
+        return new CatalogDiff(current, fresh);
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changedFrom.isEmpty();
+    }
+
+    public List<ScriptMetadata> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    public List<ScriptMetadata> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    /**
+     * @return the old instances of the changed scripts
+     */
+    public List<ScriptMetadata> getChangedFrom() {
+        return Collections.unmodifiableList(changedFrom);
+    }
+
+    /**
+     * @return the new instances of the changed scripts, in fresh catalog order
+     */
+    public List<ScriptMetadata> getChangedTo() {
+        return Collections.unmodifiableList(changedTo);
+    }
+
+    /**
+     * @return every instance that leaves the catalog: the removed scripts and the old
+     * instances of the changed ones
+     */
+    public List<ScriptMetadata> getOutgoing() {
+        List<ScriptMetadata> outgoing = new ArrayList<>(removed);
+        outgoing.addAll(changedFrom);
+        return outgoing;
+    }
+
+    /**
+     * @return every instance that enters the catalog, in the order the updated catalog
+     * appends them
+     */
+    public List<ScriptMetadata> getIncoming() {
+        return updatedCatalog.subList(updatedCatalog.size() - added.size() - changedTo.size(), updatedCatalog.size());
+    }
+
+    /**
+     * @return the current catalog with this difference applied, or the current catalog
+     * itself when there is no difference
+     */
+    public List<ScriptMetadata> getUpdatedCatalog() {
+        return updatedCatalog;
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + removed.size() + " removed, " + changedFrom.size() + " changed";
+    }
+
+    private static boolean sameContent(ScriptMetadata a, ScriptMetadata b) {
+        return a.getSource() == b.getSource()
+                && Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getShortDescription(), b.getShortDescription())
+                && Objects.equals(a.getDescription(), b.getDescription());
+    }
+
+    /**
+     * Keys of {@code scripts}, in order. A key that repeats (a filename listed twice, or
+     * scripts without one) gets its occurrence number appended, so every key is unique.
+     */
+    private static List<String> keys(List<ScriptMetadata> scripts) {
+        Map<String, Integer> occurrences = new HashMap<>();
+        List<String> keys = new ArrayList<>(scripts.size());
+        for (ScriptMetadata script : scripts) {
+            String key = keyOf(script);
+            int occurrence = occurrences.merge(key, 1, Integer::sum);
+            keys.add(occurrence == 1 ? key : key + "#" + occurrence);
+        }
+        return keys;
+    }
+
+    private static String keyOf(ScriptMetadata script) {
+        String folder = script.getCategory().getFolderName();
+        return script.getFilename() != null
+                ? folder + "/" + script.getFilename()
+                : folder + "/?" + script.getTitle();
+    }
+}
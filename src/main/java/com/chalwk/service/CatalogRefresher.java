@@ -0,0 +1,139 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.metrics.Metrics;
+import com.chalwk.model.ScriptMetadata;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revalidates the catalog in the background and reports what changed. Each run is a
+ * conditional request per source, so while upstream is unchanged a refresh costs one
+ * round trip and nothing else; otherwise the fresh catalog is diffed against the current
+ * one and only a non-empty {@link CatalogDiff} is reported.
+ * <p>
+ * Runs are spaced by the interval with random jitter, so many clients do not hit GitHub in
+ * step. After a failure the delay doubles per consecutive failure, up to a maximum.
+ */
+public class CatalogRefresher {
+
+    /**
+     * Refresh callbacks, called on the refresher thread.
+     */
+    public interface Listener {
+        /**
+         * The catalog changed; {@link CatalogDiff#getUpdatedCatalog()} is the new current one.
+         */
+        void catalogChanged(CatalogDiff diff);
+
+        void refreshFailed(IOException error, Duration retryDelay);
+    }
+
+    public static final Duration DEFAULT_INTERVAL =
+            Duration.ofSeconds(Long.getLong("hsp.refresh.intervalSeconds", 30 * 60));
+    public static final int DEFAULT_JITTER_PERCENT = Integer.getInteger("hsp.refresh.jitterPercent", 10);
+    public static final Duration DEFAULT_MAX_BACKOFF =
+            Duration.ofSeconds(Long.getLong("hsp.refresh.maxBackoffSeconds", 4 * 60 * 60));
+
+    private final Duration interval;
+    private final int jitterPercent;
+    private final Duration maxBackoff;
+    private final Listener listener;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "catalog-refresher");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    // Only touched on the refresher thread once started
+    private List<ScriptMetadata> catalog;
+    private int failures;
+
+    public CatalogRefresher(Listener listener) {
+        this(DEFAULT_INTERVAL, DEFAULT_JITTER_PERCENT, DEFAULT_MAX_BACKOFF, listener);
+    }
+
+    public CatalogRefresher(Duration interval, int jitterPercent, Duration maxBackoff, Listener listener) {
+        this.interval = interval;
+        this.jitterPercent = Math.max(0, Math.min(jitterPercent, 100));
+        this.maxBackoff = maxBackoff;
+        this.listener = listener;
+    }
+
+    /**
+     * Schedules the first refresh one interval from now, diffing against {@code current}.
+     * Does nothing when the interval is zero or negative, which turns refreshing off.
+     */
+    public void start(List<ScriptMetadata> current) {
+        if (interval.isZero() || interval.isNegative()) return;
+        scheduler.execute(() -> catalog = new ArrayList<>(current));
+        schedule(interval);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private void refresh() {
+        long start = System.nanoTime();
+        List<ScriptMetadata> fresh = new ArrayList<>();
+        try {
+            boolean modified = ScriptService.revalidateScriptsMetadata(fresh::add);
+            // The listener updates its own index from the diff, so the fresh catalog is not kept for one
+            ScriptService.releaseCatalogIndex();
+            failures = 0;
+            if (modified) {
+                CatalogDiff diff = CatalogDiff.compute(catalog, fresh);
+                if (!diff.isEmpty()) {
+                    catalog = diff.getUpdatedCatalog();
+                    Metrics.CATALOG_CHANGES.add(diff.getAdded().size() + diff.getRemoved().size()
+                            + diff.getChangedTo().size());
+                    listener.catalogChanged(diff);
+                }
+            }
+            Metrics.CATALOG_REFRESH.recordSince(start);
+            schedule(interval);
+        } catch (IOException e) {
+            failures++;
+            Duration delay = backoff();
+            listener.refreshFailed(e, delay);
+            schedule(delay);
+        } catch (RuntimeException e) {
+            // Keep refreshing; one bad run must not end the schedule
+            e.printStackTrace();
+            schedule(interval);
+        }
+    }
+
+    private Duration backoff() {
+        Duration delay = interval.multipliedBy(1L << Math.min(failures, 16));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void schedule(Duration delay) {
+        long millis = delay.toMillis();
+        if (jitterPercent > 0) {
+            long spread = millis * jitterPercent / 100;
+            millis += ThreadLocalRandom.current().nextLong(-spread, spread + 1);
+        }
+        if (!scheduler.isShutdown()) {
+            scheduler.schedule(this::refresh, Math.max(millis, 0), TimeUnit.MILLISECONDS);
+        }
+    }
+}
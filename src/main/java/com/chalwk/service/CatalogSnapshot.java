@@ -0,0 +1,280 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.model.MetadataSource;
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+import com.chalwk.search.SearchIndex;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The parsed, merged catalog in a compact binary file that is read through a memory mapping,
+ * so a launch with an unchanged catalog skips JSON parsing altogether. Loading decodes only
+ * the header and the category names; every other string is decoded by the script that owns
+ * it when it is first asked for (see {@link ScriptMetadata.Fields}).
+ * <p>
+ * Layout (big-endian):
+ * <pre>
+ * header   magic, version, flags, scriptCount, stringCount, recordsOffset, stringsOffset, indexOffset
+ *          fingerprint and sourceCount x source name, as length-prefixed UTF-8
+ * records  scriptCount x (source, category, title, shortDescription, description, filename)
+ *          as indices into the source list and string table, -1 for a missing field
+ * strings  stringCount + 1 offsets, then the UTF-8 bytes of every distinct string
+ * index    optional {@link SearchIndex} section, present when flags has {@link #FLAG_INDEX}
+ * </pre>
+ * The fingerprint identifies the cached metadata the catalog was merged from; a snapshot
+ * whose fingerprint no longer matches is ignored.
+ */
+public final class CatalogSnapshot implements ScriptMetadata.Fields {
+
+    private static final int MAGIC = 0x48535053; // "HSPS"
+    private static final int VERSION = 2;
+    private static final int FLAG_INDEX = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 24;
+
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int recordsOffset;
+    private final int stringsOffset;
+    private final List<ScriptMetadata> scripts;
+    private final SearchIndex searchIndex;
+
+    private CatalogSnapshot(ByteBuffer buffer, String fingerprint, List<MetadataSource> sources)
+            throws IOException {
+        this.buffer = buffer;
+
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            // Written by another version of the browser; ignored like a stale one
+            scripts = null;
+            searchIndex = null;
+            stringCount = recordsOffset = stringsOffset = 0;
+            return;
+        }
+        int flags = buffer.getInt(8);
+        int scriptCount = buffer.getInt(12);
+        stringCount = buffer.getInt(16);
+        recordsOffset = buffer.getInt(20);
+        stringsOffset = buffer.getInt(24);
+        int indexOffset = buffer.getInt(28);
+
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(HEADER_SIZE);
+        if (!readString(reader).equals(fingerprint)) {
+            scripts = null;
+            searchIndex = null;
+            return;
+        }
+
+        MetadataSource[] recordSources = new MetadataSource[reader.getInt()];
+        for (int i = 0; i < recordSources.length; i++) {
+            String name = readString(reader);
+            for (MetadataSource source : sources) {
+                if (source.getName().equals(name)) recordSources[i] = source;
+            }
+            if (recordSources[i] == null) throw new IOException("Snapshot of unknown source " + name);
+        }
+
+        // Categories are few, so they are resolved up front; everything else stays encoded
+        Map<Integer, ScriptCategory> categories = new HashMap<>();
+        List<ScriptMetadata> restored = new ArrayList<>(scriptCount);
+        for (int record = 0; record < scriptCount; record++) {
+            int offset = recordsOffset + record * RECORD_SIZE;
+            int categoryId = buffer.getInt(offset + 4);
+            ScriptCategory category = categories.get(categoryId);
+            if (category == null) {
+                category = ScriptCategory.discover(string(categoryId));
+                if (category == null) throw new IOException("Snapshot has an invalid category");
+                categories.put(categoryId, category);
+            }
+            restored.add(new ScriptMetadata(recordSources[buffer.getInt(offset)], category, this, record));
+        }
+        scripts = Collections.unmodifiableList(restored);
+
+        if ((flags & FLAG_INDEX) != 0) {
+            ByteBuffer section = buffer.duplicate();
+            section.position(indexOffset);
+            searchIndex = SearchIndex.read(section.slice(), scripts);
+        } else {
+            searchIndex = null;
+        }
+    }
+
+    /**
+     * Maps {@code file}, which stays in use for as long as the snapshot's scripts do.
+     *
+     * @return the snapshot, or {@code null} if it was taken of other cached metadata than
+     * {@code fingerprint} describes, or in another format version
+     */
+    public static CatalogSnapshot load(Path file, String fingerprint, List<MetadataSource> sources)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            CatalogSnapshot snapshot = new CatalogSnapshot(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), fingerprint, sources);
+            return snapshot.scripts != null ? snapshot : null;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                 | NegativeArraySizeException e) {
+            throw new IOException("Truncated catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Writes {@code scripts}, and {@code index} when it is not {@code null}, in the format
+     * {@link #load} maps.
+     */
+    public static void write(OutputStream outputStream, String fingerprint, List<ScriptMetadata> scripts,
+                             SearchIndex index) throws IOException {
+        List<MetadataSource> sources = new ArrayList<>();
+        Map<MetadataSource, Integer> sourceIds = new HashMap<>();
+        Map<String, Integer> stringIds = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] records = new int[scripts.size() * RECORD_SIZE / 4];
+
+        int i = 0;
+        for (ScriptMetadata script : scripts) {
+            Integer sourceId = sourceIds.get(script.getSource());
+            if (sourceId == null) {
+                sourceId = sources.size();
+                sourceIds.put(script.getSource(), sourceId);
+                sources.add(script.getSource());
+            }
+            records[i++] = sourceId;
+            records[i++] = stringId(script.getCategory().getFolderName(), stringIds, strings);
+            records[i++] = stringId(script.getTitle(), stringIds, strings);
+            records[i++] = stringId(script.getShortDescription(), stringIds, strings);
+            records[i++] = stringId(script.getDescription(), stringIds, strings);
+            records[i++] = stringId(script.getFilename(), stringIds, strings);
+        }
+
+        // Header strings and the index section are sized before anything is written
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        DataOutputStream namesOut = new DataOutputStream(names);
+        writeString(namesOut, fingerprint);
+        namesOut.writeInt(sources.size());
+        for (MetadataSource source : sources) {
+            writeString(namesOut, source.getName());
+        }
+
+        ByteArrayOutputStream section = new ByteArrayOutputStream();
+        if (index != null) index.write(new DataOutputStream(section));
+
+        int stringsSize = 0;
+        for (byte[] bytes : strings) {
+            stringsSize += bytes.length;
+        }
+        int recordsOffset = HEADER_SIZE + names.size();
+        int stringsOffset = recordsOffset + records.length * 4;
+        int indexOffset = stringsOffset + (strings.size() + 1) * 4 + stringsSize;
+
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(index != null ? FLAG_INDEX : 0);
+        out.writeInt(scripts.size());
+        out.writeInt(strings.size());
+        out.writeInt(recordsOffset);
+        out.writeInt(stringsOffset);
+        out.writeInt(indexOffset);
+        names.writeTo(out);
+
+        for (int value : records) {
+            out.writeInt(value);
+        }
+
+        int offset = 0;
+        for (byte[] bytes : strings) {
+            out.writeInt(offset);
+            offset += bytes.length;
+        }
+        out.writeInt(offset);
+        for (byte[] bytes : strings) {
+            out.write(bytes);
+        }
+
+        section.writeTo(out);
+        out.flush();
+    }
+
+    /**
+     * @return every script, in catalog order
+     */
+    public List<ScriptMetadata> getScripts() {
+        return scripts;
+    }
+
+    /**
+     * @return the search index saved with the catalog, or {@code null} if none was
+     */
+    public SearchIndex getSearchIndex() {
+        return searchIndex;
+    }
+
+    @Override
+    public String get(int record, int field) {
+        return string(buffer.getInt(recordsOffset + record * RECORD_SIZE + 8 + field * 4));
+    }
+
+    private String string(int id) {
+        if (id < 0 || id >= stringCount) return null;
+
+        int offsetTable = stringsOffset + id * 4;
+        int start = buffer.getInt(offsetTable);
+        int length = buffer.getInt(offsetTable + 4) - start;
+
+        // Absolute reads on a duplicate, since scripts decode from any thread
+        ByteBuffer reader = buffer.duplicate();
+        reader.position(stringsOffset + (stringCount + 1) * 4 + start);
+        byte[] bytes = new byte[length];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int stringId(String text, Map<String, Integer> stringIds, List<byte[]> strings) {
+        if (text == null) return -1;
+        Integer id = stringIds.get(text);
+        if (id == null) {
+            id = strings.size();
+            stringIds.put(text, id);
+            strings.add(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return id;
+    }
+
+    private static String readString(ByteBuffer reader) {
+        byte[] bytes = new byte[reader.getInt()];
+        reader.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
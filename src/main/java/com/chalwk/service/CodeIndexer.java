@@ -0,0 +1,192 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.metrics.MetricEvents;
+import com.chalwk.metrics.Metrics;
+import com.chalwk.model.ScriptMetadata;
+import com.chalwk.search.CodeIndex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds the {@link CodeIndex} in the background. Script bodies come from the local
+ * {@link ScriptStore} when present and are only fetched when missing, and the index file
+ * is only rewritten when the set of script bodies actually changed. Scripts whose body is
+ * unchanged are copied over from the current index rather than tokenized again.
+ * <p>
+ * Each build is written to a new timestamped file and older files are removed afterwards,
+ * so a file that is still memory-mapped is never overwritten.
+ */
+public class CodeIndexer {
+
+    /**
+     * Indexing callbacks, called on the indexer thread.
+     */
+    public interface Listener {
+        void progress(int done, int total);
+
+        void finished(CodeIndex index);
+    }
+
+    private static final String INDEX_SUFFIX = ".codeindex";
+
+    private final Path indexDir;
+    private final AtomicLong generation = new AtomicLong();
+
+    public CodeIndexer() {
+        this(Paths.get(System.getProperty("user.home"), ".hsp-script-browser", "code-index"));
+    }
+
+    public CodeIndexer(Path indexDir) {
+        this.indexDir = indexDir;
+    }
+
+    /**
+     * @return the most recent index on disk, or {@code null} if there is none
+     */
+    public CodeIndex loadExisting() {
+        List<Path> files = listIndexFiles();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            try {
+                return CodeIndex.load(files.get(i));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts indexing {@code scripts} on a low-priority thread, superseding any run in progress.
+     * The bodies of {@code changed} scripts are revalidated; the others are used as stored.
+     */
+    public void start(List<ScriptMetadata> scripts, CodeIndex current, Collection<ScriptMetadata> changed,
+                      Listener listener) {
+        long runGeneration = generation.incrementAndGet();
+        List<ScriptMetadata> snapshot = new ArrayList<>(scripts);
+        Set<ScriptMetadata> revalidate = Collections.newSetFromMap(new IdentityHashMap<>());
+        revalidate.addAll(changed);
+
+        Thread thread = new Thread(() -> run(snapshot, current, revalidate, listener, runGeneration),
+                "code-indexer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private void run(List<ScriptMetadata> scripts, CodeIndex current, Set<ScriptMetadata> changed,
+                     Listener listener, long runGeneration) {
+        List<ScriptMetadata> indexed = new ArrayList<>();
+        List<ScriptStore.Entry> entries = new ArrayList<>();
+
+        int done = 0;
+        for (ScriptMetadata script : scripts) {
+            if (runGeneration != generation.get()) return;
+            if (script.getFilename() != null) {
+                try {
+                    entries.add(ScriptService.ensureStored(script, !changed.contains(script)));
+                    indexed.add(script);
+                } catch (IOException e) {
+                    // Leave unreachable scripts out of this build; the next one picks them up
+                }
+            }
+            listener.progress(++done, scripts.size());
+        }
+
+        List<String> urls = indexed.stream().map(ScriptMetadata::getRawScriptUrl).collect(Collectors.toList());
+        List<String> hashes = entries.stream().map(ScriptStore.Entry::getSha256).collect(Collectors.toList());
+        Map<String, String> hashesByUrl = new HashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            hashesByUrl.put(urls.get(i), hashes.get(i));
+        }
+        if (current != null && current.isBuiltFrom(hashesByUrl)) {
+            listener.finished(current);
+            return;
+        }
+
+        MetricEvents.IndexBuild event = new MetricEvents.IndexBuild();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            CodeIndex.Builder builder = new CodeIndex.Builder();
+            Set<String> unchanged = current != null ? builder.addUnchanged(current, hashesByUrl) : new HashSet<>();
+            for (int i = 0; i < indexed.size(); i++) {
+                if (runGeneration != generation.get()) return;
+                if (unchanged.contains(urls.get(i))) continue;
+                byte[] body = ScriptService.readStoredBody(entries.get(i));
+                builder.addDocument(urls.get(i), hashes.get(i), new String(body, StandardCharsets.UTF_8));
+            }
+
+            Files.createDirectories(indexDir);
+            Path file = indexDir.resolve(System.currentTimeMillis() + INDEX_SUFFIX);
+            Path temp = Files.createTempFile(indexDir, "build", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    builder.write(out);
+                }
+                AtomicFiles.move(temp, file);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+
+            CodeIndex index = CodeIndex.load(file);
+            deleteOlderThan(file);
+
+            Metrics.CODE_INDEX_BUILD.recordSince(start);
+            event.index = "code";
+            event.documents = index.getDocumentCount();
+            event.commit();
+            listener.finished(index);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private List<Path> listIndexFiles() {
+        if (!Files.isDirectory(indexDir)) return new ArrayList<>();
+        try (Stream<Path> files = Files.list(indexDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(INDEX_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    private void deleteOlderThan(Path latest) {
+        for (Path file : listIndexFiles()) {
+            if (file.equals(latest)) continue;
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Still mapped (e.g. on Windows); it will be removed after a later build
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A group of downloads submitted together to a {@link DownloadManager}.
+ */
+public class DownloadBatch {
+
+    private final DownloadManager manager;
+    private final List<DownloadTask> tasks;
+    private final DownloadManager.Listener listener;
+    private final AtomicInteger remaining;
+
+    DownloadBatch(DownloadManager manager, List<DownloadTask> tasks, DownloadManager.Listener listener) {
+        this.manager = manager;
+        this.tasks = Collections.unmodifiableList(new ArrayList<>(tasks));
+        this.listener = listener;
+        this.remaining = new AtomicInteger(tasks.size());
+    }
+
+    public List<DownloadTask> getTasks() {
+        return tasks;
+    }
+
+    public boolean isFinished() {
+        return remaining.get() == 0;
+    }
+
+    public int getCompletedCount() {
+        return count(DownloadTask.State.COMPLETED);
+    }
+
+    public int getFailedCount() {
+        return count(DownloadTask.State.FAILED);
+    }
+
+    public List<DownloadTask> getFailedTasks() {
+        List<DownloadTask> failed = new ArrayList<>();
+        for (DownloadTask task : tasks) {
+            if (task.getState() == DownloadTask.State.FAILED) failed.add(task);
+        }
+        return failed;
+    }
+
+    /**
+     * @return aggregate completion between 0 and 1, each script weighing the same
+     */
+    public double getProgress() {
+        if (tasks.isEmpty()) return 1.0;
+        double sum = 0;
+        for (DownloadTask task : tasks) {
+            sum += task.getFraction();
+        }
+        return sum / tasks.size();
+    }
+
+    public long getBytesRead() {
+        long sum = 0;
+        for (DownloadTask task : tasks) {
+            sum += task.getBytesRead();
+        }
+        return sum;
+    }
+
+    /**
+     * Puts every failed task back on the queue. Does nothing while the batch is still running.
+     */
+    public void retryFailed() {
+        if (!isFinished()) return;
+
+        List<DownloadTask> failed = getFailedTasks();
+        remaining.set(failed.size());
+        for (DownloadTask task : failed) {
+            task.reset();
+            manager.enqueue(this, task);
+        }
+    }
+
+    DownloadManager.Listener getListener() {
+        return listener;
+    }
+
+    /**
+     * @return {@code true} when this was the last outstanding task
+     */
+    boolean taskFinished() {
+        return remaining.decrementAndGet() == 0;
+    }
+
+    private int count(DownloadTask.State state) {
+        int count = 0;
+        for (DownloadTask task : tasks) {
+            if (task.getState() == state) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs script downloads on a bounded worker pool. Failed attempts are retried with a
+ * linear backoff before a task is marked as failed.
+ */
+public class DownloadManager {
+
+    private static final long RETRY_BACKOFF_MILLIS = 1000;
+
+    /**
+     * Download callbacks. Both methods are called on a download worker thread.
+     */
+    public interface Listener {
+        void taskUpdated(DownloadTask task);
+
+        void batchFinished(DownloadBatch batch);
+    }
+
+    private final ExecutorService executor;
+    private final int maxAttempts;
+
+    public DownloadManager(int maxConcurrent, int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(maxConcurrent, r -> {
+            Thread thread = new Thread(r, "download-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public DownloadBatch submit(List<DownloadTask> tasks, Listener listener) {
+        DownloadBatch batch = new DownloadBatch(this, tasks, listener);
+        if (tasks.isEmpty()) {
+            listener.batchFinished(batch);
+        }
+        for (DownloadTask task : tasks) {
+            enqueue(batch, task);
+        }
+        return batch;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void enqueue(DownloadBatch batch, DownloadTask task) {
+        executor.execute(() -> run(batch, task));
+    }
+
+    private void run(DownloadBatch batch, DownloadTask task) {
+        Listener listener = batch.getListener();
+
+        try {
+            download(task, listener);
+        } catch (RuntimeException e) {
+            // Not worth retrying (e.g. a catalog URL that is not a valid URI), but the task must still finish
+            e.printStackTrace();
+            task.setError(describe(e));
+            task.setState(DownloadTask.State.FAILED);
+        } finally {
+            try {
+                listener.taskUpdated(task);
+            } finally {
+                if (batch.taskFinished()) {
+                    listener.batchFinished(batch);
+                }
+            }
+        }
+    }
+
+    private void download(DownloadTask task, Listener listener) {
+        while (true) {
+            task.incrementAttempts();
+            task.setState(DownloadTask.State.DOWNLOADING);
+            listener.taskUpdated(task);
+
+            try {
+                ScriptService.downloadScript(task.getScript(), task.getTarget(), new ProgressForwarder(task, listener));
+                task.setError(null);
+                task.setState(DownloadTask.State.COMPLETED);
+                return;
+            } catch (IOException e) {
+                task.setError(describe(e));
+                if (task.getAttempts() >= maxAttempts) {
+                    task.setState(DownloadTask.State.FAILED);
+                    return;
+                }
+
+                task.setState(DownloadTask.State.RETRYING);
+                listener.taskUpdated(task);
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MILLIS * task.getAttempts());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    task.setState(DownloadTask.State.FAILED);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static String describe(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+
+    /**
+     * Records byte progress on the task and only notifies the listener when the
+     * whole-percent value changes, so the UI is not flooded with updates.
+     */
+    private static class ProgressForwarder implements ScriptService.ProgressListener {
+        private final DownloadTask task;
+        private final Listener listener;
+        private int lastPercent = -1;
+
+        ProgressForwarder(DownloadTask task, Listener listener) {
+            this.task = task;
+            this.listener = listener;
+        }
+
+        @Override
+        public void progress(long bytesRead, long contentLength) {
+            task.setProgress(bytesRead, contentLength);
+
+            int percent = contentLength > 0 ? (int) (bytesRead * 100 / contentLength) : 0;
+            if (percent != lastPercent) {
+                lastPercent = percent;
+                listener.taskUpdated(task);
+            }
+        }
+    }
+}
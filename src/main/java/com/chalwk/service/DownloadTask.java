@@ -0,0 +1,115 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.model.ScriptMetadata;
+
+import java.nio.file.Path;
+
+/**
+ * One script in a {@link DownloadBatch}. Progress fields are written by the download
+ * worker and may be read from any thread.
+ */
+public class DownloadTask {
+
+    public enum State {
+        QUEUED("Queued"),
+        DOWNLOADING("Downloading"),
+        RETRYING("Retrying"),
+        COMPLETED("Completed"),
+        FAILED("Failed");
+
+        private final String displayName;
+
+        State(String displayName) {
+            this.displayName = displayName;
+        }
+
+        @Override
+        public String toString() {
+            return displayName;
+        }
+    }
+
+    private final ScriptMetadata script;
+    private final Path target;
+
+    private volatile State state = State.QUEUED;
+    private volatile long bytesRead;
+    private volatile long contentLength = -1;
+    private volatile int attempts;
+    private volatile String error;
+
+    public DownloadTask(ScriptMetadata script, Path target) {
+        this.script = script;
+        this.target = target;
+    }
+
+    public ScriptMetadata getScript() {
+        return script;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    void setState(State state) {
+        this.state = state;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    void setProgress(long bytesRead, long contentLength) {
+        this.bytesRead = bytesRead;
+        this.contentLength = contentLength;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    void incrementAttempts() {
+        attempts++;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * @return completion between 0 and 1; unknown lengths only count once finished
+     */
+    public double getFraction() {
+        if (state == State.COMPLETED) return 1.0;
+        long length = contentLength;
+        return length > 0 ? Math.min(1.0, (double) bytesRead / length) : 0.0;
+    }
+
+    void reset() {
+        state = State.QUEUED;
+        bytesRead = 0;
+        contentLength = -1;
+        error = null;
+    }
+}
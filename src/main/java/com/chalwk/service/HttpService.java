@@ -0,0 +1,197 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Shared HTTP client for everything the browser fetches. One {@link HttpClient} keeps
+ * connections alive and multiplexes requests to the same host over HTTP/2, so bulk
+ * downloads no longer pay a TLS handshake per file.
+ * <p>
+ * A proxy can be configured with the {@code hsp.proxy.host} and {@code hsp.proxy.port}
+ * system properties; otherwise the JVM default proxy settings apply.
+ */
+final class HttpService {
+
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    static final Duration RESPONSE_TIMEOUT = Duration.ofSeconds(30);
+    static final long READ_TIMEOUT_MILLIS = 30000;
+
+    private static final String USER_AGENT = "HSP-Script-Browser/1.0";
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(CONNECT_TIMEOUT)
+            .proxy(createProxySelector())
+            .build();
+
+    private static final ScheduledExecutorService readWatchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "http-read-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private HttpService() {
+    }
+
+    /**
+     * @return a GET request with the shared timeout, user agent and accepted encodings applied
+     */
+    static HttpRequest.Builder newRequest(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(RESPONSE_TIMEOUT)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+    }
+
+    static Response send(HttpRequest request) throws IOException {
+        try {
+            return new Response(client.send(request, HttpResponse.BodyHandlers.ofInputStream()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Request interrupted", e);
+        }
+    }
+
+    private static ProxySelector createProxySelector() {
+        String host = System.getProperty("hsp.proxy.host");
+        if (host == null || host.isEmpty()) {
+            return ProxySelector.getDefault();
+        }
+        int port = Integer.getInteger("hsp.proxy.port", 8080);
+        return ProxySelector.of(new InetSocketAddress(host, port));
+    }
+
+    /**
+     * A response whose body is decoded according to Content-Encoding. Bytes are counted as
+     * they arrive on the wire, and the body is aborted once no data has arrived within the
+     * read timeout, so a stalled server cannot hang the calling thread.
+     */
+    static final class Response implements AutoCloseable {
+        private final HttpResponse<InputStream> response;
+        private final WireInputStream wire;
+        private InputStream body;
+
+        private Response(HttpResponse<InputStream> response) {
+            this.response = response;
+            this.wire = new WireInputStream(response.body());
+        }
+
+        int statusCode() {
+            return response.statusCode();
+        }
+
+        String header(String name) {
+            return response.headers().firstValue(name).orElse(null);
+        }
+
+        /**
+         * @return the number of bytes announced by Content-Length (encoded), or {@code -1}
+         */
+        long contentLength() {
+            return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        }
+
+        /**
+         * @return encoded bytes received so far, comparable with {@link #contentLength()}
+         */
+        long wireBytesRead() {
+            return wire.count;
+        }
+
+        InputStream body() throws IOException {
+            if (body == null) {
+                String encoding = header("Content-Encoding");
+                if ("gzip".equalsIgnoreCase(encoding)) {
+                    body = new GZIPInputStream(wire, 8192);
+                } else if ("deflate".equalsIgnoreCase(encoding)) {
+                    body = new InflaterInputStream(wire);
+                } else {
+                    body = wire;
+                }
+            }
+            return body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            wire.close();
+        }
+    }
+
+    private static final class WireInputStream extends FilterInputStream {
+        private volatile long count;
+        private volatile long lastReadNanos = System.nanoTime();
+        private volatile boolean closed;
+        private final ScheduledFuture<?> watchdog;
+
+        WireInputStream(InputStream in) {
+            super(in);
+            watchdog = readWatchdog.scheduleWithFixedDelay(this::checkIdle,
+                    READ_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS / 4, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            touch(b == -1 ? 0 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            touch(Math.max(n, 0));
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            watchdog.cancel(false);
+            super.close();
+        }
+
+        private void touch(int bytes) throws IOException {
+            if (closed) throw new IOException("Read timed out");
+            count += bytes;
+            lastReadNanos = System.nanoTime();
+        }
+
+        private void checkIdle() {
+            long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastReadNanos);
+            if (idleMillis >= READ_TIMEOUT_MILLIS) {
+                try {
+                    close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * On-disk copy of metadata.json together with the HTTP validators (ETag / Last-Modified)
+ * it was served with, so launches can render from disk and revalidate in the background.
+ */
+public class MetadataCache {
+
+    private static final String BODY_FILE = "metadata.json";
+    private static final String VALIDATORS_FILE = "metadata.properties";
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+
+    private final Path cacheDir;
+    private final Properties validators = new Properties();
+
+    public MetadataCache() {
+        this(Paths.get(System.getProperty("user.home"), ".hsp-script-browser", "cache"));
+    }
+
+    public MetadataCache(Path cacheDir) {
+        this.cacheDir = cacheDir;
+        loadValidators();
+    }
+
+    public boolean exists() {
+        return Files.isRegularFile(cacheDir.resolve(BODY_FILE));
+    }
+
+    public Reader openBody() throws IOException {
+        if (!exists()) return null;
+        return Files.newBufferedReader(cacheDir.resolve(BODY_FILE), StandardCharsets.UTF_8);
+    }
+
+    public String getETag() {
+        return exists() ? validators.getProperty(ETAG_KEY) : null;
+    }
+
+    public String getLastModified() {
+        return exists() ? validators.getProperty(LAST_MODIFIED_KEY) : null;
+    }
+
+    /**
+     * @return a value that changes whenever the cached body does, or {@code null} without one
+     */
+    public String getFingerprint() {
+        Path body = cacheDir.resolve(BODY_FILE);
+        try {
+            return Files.size(body) + "/" + Files.getLastModifiedTime(body).toMillis()
+                    + "/" + getETag() + "/" + getLastModified();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Creates a temporary file next to the cache that a download can stream into
+     * before it is promoted with {@link #commit}.
+     */
+    public Path createTempBody() throws IOException {
+        Files.createDirectories(cacheDir);
+        return Files.createTempFile(cacheDir, BODY_FILE, ".tmp");
+    }
+
+    public synchronized void commit(Path tempBody, String etag, String lastModified) throws IOException {
+        validators.clear();
+        if (etag != null) validators.setProperty(ETAG_KEY, etag);
+        if (lastModified != null) validators.setProperty(LAST_MODIFIED_KEY, lastModified);
+
+        // Write both files to temporaries first so a crash never leaves a torn cache behind
+        Path validatorsTemp = Files.createTempFile(cacheDir, VALIDATORS_FILE, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(validatorsTemp)) {
+                validators.store(out, "HSP Script Browser metadata validators");
+            }
+            AtomicFiles.move(tempBody, cacheDir.resolve(BODY_FILE));
+            AtomicFiles.move(validatorsTemp, cacheDir.resolve(VALIDATORS_FILE));
+        } finally {
+            Files.deleteIfExists(tempBody);
+            Files.deleteIfExists(validatorsTemp);
+        }
+    }
+
+    /**
+     * Drops the cached copy, e.g. after it turned out to be unreadable, so the next
+     * revalidation performs an unconditional fetch.
+     */
+    public synchronized void clear() {
+        validators.clear();
+        try {
+            Files.deleteIfExists(cacheDir.resolve(BODY_FILE));
+            Files.deleteIfExists(cacheDir.resolve(VALIDATORS_FILE));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void loadValidators() {
+        Path file = cacheDir.resolve(VALIDATORS_FILE);
+        if (!Files.isRegularFile(file)) return;
+
+        try (InputStream in = Files.newInputStream(file)) {
+            validators.load(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.model.MetadataSource;
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+import com.chalwk.model.StringPool;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Pull parser for metadata.json. Walks the category objects token by token and only
+ * materialises one script object at a time, handing each record to the sink as soon
+ * as its closing brace has been read. Strings are deduplicated across the whole document.
+ */
+public final class MetadataStreamParser {
+
+    private MetadataStreamParser() {
+    }
+
+    /**
+     * Parses a metadata.json of the upstream source.
+     *
+     * @return the number of scripts handed to {@code sink}
+     * @throws JSONException if the document is malformed
+     */
+    public static int parse(Reader reader, Consumer<ScriptMetadata> sink) {
+        return parse(reader, MetadataSource.UPSTREAM, sink);
+    }
+
+    /**
+     * Parses a metadata.json of {@code source}. Every top-level object is a category folder;
+     * folders other than the upstream ones are registered as they are found.
+     *
+     * @return the number of scripts handed to {@code sink}
+     * @throws JSONException if the document is malformed
+     */
+    public static int parse(Reader reader, MetadataSource source, Consumer<ScriptMetadata> sink) {
+        JSONTokener tokener = new JSONTokener(reader);
+        StringPool pool = new StringPool();
+        int count = 0;
+
+        expect(tokener, '{');
+        if (isObjectEnd(tokener)) return count;
+
+        do {
+            String folderName = nextKey(tokener);
+            if (tokener.nextClean() != '{') {
+                // Not a category (e.g. "version") - skip over it
+                tokener.back();
+                tokener.nextValue();
+                continue;
+            }
+
+            if (isObjectEnd(tokener)) continue;
+            ScriptCategory category = null;
+            do {
+                nextKey(tokener);
+                Object value = tokener.nextValue();
+                if (!(value instanceof JSONObject)) continue;
+
+                // Registered only once the folder turns out to hold scripts
+                if (category == null) category = ScriptCategory.discover(folderName);
+                if (category == null) continue;
+
+                sink.accept(toScript((JSONObject) value, source, category, pool));
+                count++;
+            } while (nextMember(tokener));
+        } while (nextMember(tokener));
+
+        return count;
+    }
+
+    static ScriptMetadata toScript(JSONObject scriptObj, MetadataSource source, ScriptCategory category,
+                                   StringPool pool) {
+        // Handle different JSON structures
+        String title = scriptObj.has("title") ? scriptObj.getString("title")
+                : scriptObj.has("truce") ? scriptObj.getString("truce") : null;
+
+        return new ScriptMetadata(source, category, title,
+                stringOrNull(scriptObj, "shortDescription"),
+                stringOrNull(scriptObj, "description"),
+                stringOrNull(scriptObj, "filename"),
+                pool);
+    }
+
+    private static String stringOrNull(JSONObject scriptObj, String key) {
+        return scriptObj.has(key) ? scriptObj.getString(key) : null;
+    }
+
+    private static String nextKey(JSONTokener tokener) {
+        char quote = tokener.nextClean();
+        if (quote != '"' && quote != '\'') {
+            throw tokener.syntaxError("Expected a quoted key");
+        }
+        String key = tokener.nextString(quote);
+        expect(tokener, ':');
+        return key;
+    }
+
+    private static boolean isObjectEnd(JSONTokener tokener) {
+        if (tokener.nextClean() == '}') return true;
+        tokener.back();
+        return false;
+    }
+
+    private static boolean nextMember(JSONTokener tokener) {
+        char c = tokener.nextClean();
+        if (c == ',') return true;
+        if (c == '}') return false;
+        throw tokener.syntaxError("Expected ',' or '}'");
+    }
+
+    private static void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+}
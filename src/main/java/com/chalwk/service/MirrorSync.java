@@ -0,0 +1,389 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.model.ScriptCategory;
+import com.chalwk.model.ScriptMetadata;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a local mirror of the catalog, laid out as {@code <category>/<filename>}, in step
+ * with GitHub. A manifest records the SHA-256, validators and size of every mirrored file,
+ * so a sync only revalidates with conditional requests, downloads what changed and removes
+ * what left the catalog.
+ * <p>
+ * Changes are applied as one transaction: new bodies are staged first, and only when every
+ * script was fetched is a journal written and replayed onto the mirror. A sync interrupted
+ * while applying finishes the journal the next time it runs.
+ */
+public class MirrorSync {
+
+    private static final String STATE_DIR = ".hsp-mirror";
+    private static final String MANIFEST_FILE = "manifest.properties";
+    private static final String NEXT_MANIFEST_FILE = "manifest.next";
+    private static final String JOURNAL_FILE = "journal.properties";
+    private static final String STAGING_DIR = "staging";
+
+    private static final String REPLACE_PREFIX = "replace.";
+    private static final String DELETE_PREFIX = "delete.";
+
+    private final Path root;
+    private final Path stateDir;
+    private final int jobs;
+
+    public MirrorSync(Path root, int jobs) {
+        this.root = root.toAbsolutePath().normalize();
+        this.stateDir = this.root.resolve(STATE_DIR);
+        this.jobs = jobs;
+    }
+
+    /**
+     * Brings the mirror of {@code categories} (every category when {@code null}) up to date
+     * with {@code scripts}. Files of other categories, and files the manifest does not track,
+     * are never touched.
+     */
+    public Result sync(List<ScriptMetadata> scripts, Set<ScriptCategory> categories) throws IOException {
+        recover();
+
+        Map<String, ManifestEntry> manifest = loadManifest(stateDir.resolve(MANIFEST_FILE));
+        Map<String, ScriptMetadata> wanted = new TreeMap<>();
+        Result result = new Result();
+
+        for (ScriptMetadata script : scripts) {
+            if (script.getFilename() == null || !includes(categories, script.getCategory())) continue;
+            String path = relativePath(script);
+            if (path == null) {
+                result.skipped.add(script.getCategory().getFolderName() + "/" + script.getFilename());
+            } else {
+                wanted.put(path, script);
+            }
+        }
+
+        Map<String, ManifestEntry> nextManifest = new TreeMap<>(manifest);
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(jobs, r -> {
+            Thread thread = new Thread(r, "mirror-sync-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Map<String, Future<ManifestEntry>> fetches = new TreeMap<>();
+            wanted.forEach((path, script) ->
+                    fetches.put(path, executor.submit(() -> fetch(path, script, manifest.get(path), result))));
+
+            for (Map.Entry<String, Future<ManifestEntry>> fetch : fetches.entrySet()) {
+                try {
+                    nextManifest.put(fetch.getKey(), fetch.getValue().get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    result.failed.put(fetch.getKey(), cause.getMessage() != null ? cause.getMessage() : cause.toString());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Sync interrupted", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        for (String path : manifest.keySet()) {
+            if (!wanted.containsKey(path) && (categories == null || categories.contains(categoryOf(path)))) {
+                result.removed.add(path);
+                nextManifest.remove(path);
+            }
+        }
+
+        // All or nothing: a partial sync would leave the mirror matching no version of the catalog
+        if (!result.failed.isEmpty()) {
+            deleteTree(stateDir.resolve(STAGING_DIR));
+            return result;
+        }
+
+        Collections.sort(result.added);
+        Collections.sort(result.updated);
+        writeJournal(result, nextManifest);
+        recover();
+        result.applied = true;
+        return result;
+    }
+
+    /**
+     * Makes sure the current body of {@code script} is in the store and stages it unless the
+     * mirrored copy is already identical.
+     *
+     * @return the manifest entry describing the body the mirror will hold
+     */
+    private ManifestEntry fetch(String path, ScriptMetadata script, ManifestEntry previous, Result result)
+            throws IOException {
+        Path target = root.resolve(path);
+        boolean intact = previous != null && Files.isRegularFile(target)
+                && Files.size(target) == previous.size && previous.sha256.equals(hash(target));
+
+        // Let the store revalidate the mirrored copy instead of downloading it again
+        if (intact && (previous.etag != null || previous.lastModified != null)) {
+            ScriptService.seedStore(script, target, previous.etag, previous.lastModified);
+        }
+
+        ScriptStore.Entry stored = ScriptService.ensureStored(script, false);
+        if (intact && stored.getSha256().equals(previous.sha256)) {
+            result.unchanged.incrementAndGet();
+        } else {
+            Path staged = stateDir.resolve(STAGING_DIR).resolve(path);
+            Files.createDirectories(staged.getParent());
+            Files.write(staged, ScriptService.readStoredBody(stored));
+            synchronized (result) {
+                (previous == null ? result.added : result.updated).add(path);
+            }
+        }
+        return new ManifestEntry(stored.getSha256(), stored.getETag(), stored.getLastModified(), stored.getSize());
+    }
+
+    /**
+     * Replays an unfinished journal, if there is one, and clears leftover staged files.
+     */
+    private void recover() throws IOException {
+        Path journalFile = stateDir.resolve(JOURNAL_FILE);
+        if (Files.isRegularFile(journalFile)) {
+            Properties journal = new Properties();
+            try (InputStream in = Files.newInputStream(journalFile)) {
+                journal.load(in);
+            }
+
+            // Every step is idempotent, so replaying a half-applied journal is safe
+            for (String key : journal.stringPropertyNames()) {
+                String path = journal.getProperty(key);
+                if (!isMirrorPath(path)) {
+                    System.err.println("Ignoring journal entry outside the mirror: " + path);
+                    continue;
+                }
+                Path target = root.resolve(path);
+                if (key.startsWith(REPLACE_PREFIX)) {
+                    Path staged = stateDir.resolve(STAGING_DIR).resolve(path);
+                    if (Files.isRegularFile(staged)) {
+                        Files.createDirectories(target.getParent());
+                        AtomicFiles.move(staged, target);
+                    }
+                } else if (key.startsWith(DELETE_PREFIX)) {
+                    Files.deleteIfExists(target);
+                }
+            }
+
+            Path nextManifest = stateDir.resolve(NEXT_MANIFEST_FILE);
+            if (Files.isRegularFile(nextManifest)) {
+                AtomicFiles.move(nextManifest, stateDir.resolve(MANIFEST_FILE));
+            }
+            Files.delete(journalFile);
+        }
+        deleteTree(stateDir.resolve(STAGING_DIR));
+    }
+
+    private void writeJournal(Result result, Map<String, ManifestEntry> nextManifest) throws IOException {
+        Files.createDirectories(stateDir);
+        saveManifest(nextManifest, stateDir.resolve(NEXT_MANIFEST_FILE));
+
+        Properties journal = new Properties();
+        int step = 0;
+        for (String path : result.added) journal.setProperty(REPLACE_PREFIX + step++, path);
+        for (String path : result.updated) journal.setProperty(REPLACE_PREFIX + step++, path);
+        for (String path : result.removed) journal.setProperty(DELETE_PREFIX + step++, path);
+
+        // The journal appearing atomically is the commit point
+        Path temp = Files.createTempFile(stateDir, JOURNAL_FILE, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                journal.store(out, "HSP Script Browser mirror sync journal");
+            }
+            AtomicFiles.move(temp, stateDir.resolve(JOURNAL_FILE));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return {@code <category>/<filename>}, or {@code null} if the filename would leave its folder
+     */
+    private String relativePath(ScriptMetadata script) {
+        String folder = script.getCategory().getFolderName();
+        Path target = ScriptService.resolveScriptFile(root.resolve(folder), script);
+        String path = target != null ? folder + "/" + target.getFileName() : null;
+        return path != null && isMirrorPath(path) ? path : null;
+    }
+
+    /**
+     * Every path the mirror and its staging area are written at, deleted at or read from
+     * passes this check. Paths read back from the manifest or journal in particular could
+     * otherwise point anywhere, e.g. {@code utility/../../x}.
+     *
+     * @return whether {@code path} names a file directly inside a category folder of the mirror
+     */
+    private boolean isMirrorPath(String path) {
+        int slash = path.indexOf('/');
+        if (slash <= 0 || ScriptCategory.fromFolderName(path.substring(0, slash)) == null) return false;
+        try {
+            Path target = root.resolve(path);
+            Path categoryDir = target.getParent();
+            return target.equals(target.normalize()) && categoryDir != null && root.equals(categoryDir.getParent())
+                    && !categoryDir.equals(stateDir);
+        } catch (InvalidPathException e) {
+            return false;
+        }
+    }
+
+    private static boolean includes(Set<ScriptCategory> categories, ScriptCategory category) {
+        return categories == null || categories.contains(category);
+    }
+
+    private static ScriptCategory categoryOf(String path) {
+        return ScriptCategory.fromFolderName(path.substring(0, path.indexOf('/')));
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = ScriptStore.newDigest();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return ScriptStore.toHex(digest.digest());
+    }
+
+    private Map<String, ManifestEntry> loadManifest(Path file) throws IOException {
+        Map<String, ManifestEntry> manifest = new HashMap<>();
+        if (!Files.isRegularFile(file)) return manifest;
+
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+        }
+        for (String path : properties.stringPropertyNames()) {
+            ManifestEntry entry = ManifestEntry.parse(properties.getProperty(path));
+            if (entry != null && isMirrorPath(path)) manifest.put(path, entry);
+        }
+        return manifest;
+    }
+
+    private static void saveManifest(Map<String, ManifestEntry> manifest, Path file) throws IOException {
+        Properties properties = new Properties();
+        manifest.forEach((path, entry) -> properties.setProperty(path, entry.format()));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            properties.store(out, "HSP Script Browser mirror manifest");
+        }
+    }
+
+    private static void deleteTree(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    /**
+     * What a sync changed, by mirror-relative path. Nothing is applied when any script failed.
+     */
+    public static class Result {
+        private final List<String> added = new ArrayList<>();
+        private final List<String> updated = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+        private final List<String> skipped = new ArrayList<>();
+        private final Map<String, String> failed = new TreeMap<>();
+        private final AtomicInteger unchanged = new AtomicInteger();
+        private boolean applied;
+
+        public List<String> getAdded() {
+            return added;
+        }
+
+        public List<String> getUpdated() {
+            return updated;
+        }
+
+        public List<String> getRemoved() {
+            return removed;
+        }
+
+        /**
+         * @return scripts left out because their filename would leave the category folder
+         */
+        public List<String> getSkipped() {
+            return skipped;
+        }
+
+        public int getUnchangedCount() {
+            return unchanged.get();
+        }
+
+        /**
+         * @return error messages by path of the scripts that could not be fetched
+         */
+        public Map<String, String> getFailed() {
+            return failed;
+        }
+
+        public boolean isApplied() {
+            return applied;
+        }
+    }
+
+    /**
+     * Manifest record: the body a mirrored file holds and the validators it was served with.
+     */
+    private static class ManifestEntry {
+        private final String sha256;
+        private final String etag;
+        private final String lastModified;
+        private final long size;
+
+        ManifestEntry(String sha256, String etag, String lastModified, long size) {
+            this.sha256 = sha256;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        String format() {
+            return String.join("\t", sha256, etag != null ? etag : "", lastModified != null ? lastModified : "",
+                    Long.toString(size));
+        }
+
+        static ManifestEntry parse(String value) {
+            String[] fields = value.split("\t", -1);
+            if (fields.length != 4) return null;
+            try {
+                return new ManifestEntry(fields[0], fields[1].isEmpty() ? null : fields[1],
+                        fields[2].isEmpty() ? null : fields[2], Long.parseLong(fields[3]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
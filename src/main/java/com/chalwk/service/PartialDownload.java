@@ -0,0 +1,139 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * State of an interrupted download: the {@code <target>.part} file holding the bytes
+ * received so far and a {@code <target>.part.meta} sidecar recording where they came from
+ * and the validator needed to resume them safely with a Range request.
+ */
+final class PartialDownload {
+
+    private static final String URL_KEY = "url";
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "lastModified";
+    private static final String LENGTH_KEY = "length";
+
+    private final Path partFile;
+    private final Path metaFile;
+    private final String url;
+
+    private String etag;
+    private String lastModified;
+    private long length = -1;
+
+    private PartialDownload(Path target, String url) {
+        this.partFile = target.resolveSibling(target.getFileName() + ".part");
+        this.metaFile = target.resolveSibling(target.getFileName() + ".part.meta");
+        this.url = url;
+    }
+
+    /**
+     * Loads the partial state for {@code target}, discarding anything left over from a
+     * different URL, without a usable validator, or with a sidecar that cannot be read.
+     */
+    static PartialDownload load(Path target, String url) throws IOException {
+        PartialDownload partial = new PartialDownload(target, url);
+        if (!Files.isRegularFile(partial.partFile) || !Files.isRegularFile(partial.metaFile)) {
+            partial.discard();
+            return partial;
+        }
+
+        Properties meta = new Properties();
+        long length;
+        try (InputStream in = Files.newInputStream(partial.metaFile)) {
+            meta.load(in);
+            length = Long.parseLong(meta.getProperty(LENGTH_KEY, "-1"));
+        } catch (IllegalArgumentException e) {
+            // A corrupt sidecar (bad escape or length); the download restarts from zero
+            partial.discard();
+            return partial;
+        }
+
+        if (!url.equals(meta.getProperty(URL_KEY))) {
+            partial.discard();
+            return partial;
+        }
+        partial.etag = meta.getProperty(ETAG_KEY);
+        partial.lastModified = meta.getProperty(LAST_MODIFIED_KEY);
+        partial.length = length;
+        return partial;
+    }
+
+    Path getPartFile() {
+        return partFile;
+    }
+
+    /**
+     * @return the number of bytes that can be resumed from, {@code 0} if a full fetch is needed
+     */
+    long resumeOffset() throws IOException {
+        if (!Files.isRegularFile(partFile)) return 0;
+        if (etag == null && lastModified == null && length <= 0) return 0;
+
+        long size = Files.size(partFile);
+        return length > 0 && size >= length ? 0 : size;
+    }
+
+    /**
+     * @return the value for If-Range: a strong ETag, else Last-Modified, else {@code null}
+     */
+    String ifRange() {
+        if (etag != null && !etag.startsWith("W/")) return etag;
+        return lastModified;
+    }
+
+    long getLength() {
+        return length;
+    }
+
+    /**
+     * Records the validators of the response the part file is being filled from.
+     */
+    void begin(String etag, String lastModified, long length) throws IOException {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.length = length;
+
+        Properties meta = new Properties();
+        meta.setProperty(URL_KEY, url);
+        if (etag != null) meta.setProperty(ETAG_KEY, etag);
+        if (lastModified != null) meta.setProperty(LAST_MODIFIED_KEY, lastModified);
+        meta.setProperty(LENGTH_KEY, Long.toString(length));
+
+        Files.createDirectories(metaFile.toAbsolutePath().getParent());
+        try (OutputStream out = Files.newOutputStream(metaFile)) {
+            meta.store(out, "HSP Script Browser partial download");
+        }
+    }
+
+    /**
+     * Promotes the completed part file to {@code target} and removes the sidecar.
+     */
+    void complete(Path target) throws IOException {
+        AtomicFiles.move(partFile, target);
+        Files.deleteIfExists(metaFile);
+    }
+
+    void discard() throws IOException {
+        Files.deleteIfExists(partFile);
+        Files.deleteIfExists(metaFile);
+        etag = null;
+        lastModified = null;
+        length = -1;
+    }
+}
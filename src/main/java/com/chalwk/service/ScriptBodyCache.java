@@ -0,0 +1,55 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory LRU of script bodies keyed by their SHA-256, bounded by the total number of
+ * bytes held rather than by entry count.
+ */
+public class ScriptBodyCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> bodies = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public ScriptBodyCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public synchronized byte[] get(String sha256) {
+        return bodies.get(sha256);
+    }
+
+    public synchronized boolean contains(String sha256) {
+        return bodies.containsKey(sha256);
+    }
+
+    public synchronized void put(String sha256, byte[] body) {
+        if (body.length > maxBytes) return;
+
+        byte[] previous = bodies.put(sha256, body);
+        if (previous != null) totalBytes -= previous.length;
+        totalBytes += body.length;
+
+        Iterator<Map.Entry<String, byte[]>> eldest = bodies.entrySet().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            totalBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import com.chalwk.model.ScriptMetadata;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * Fetches script bodies in the background before the user asks for them. Requests are
+ * served newest first by a single low-priority thread; when the queue is full the
+ * oldest (least likely still relevant) request is dropped.
+ */
+public class ScriptPrefetcher {
+
+    private static final int MAX_QUEUED = 16;
+
+    private final LinkedList<ScriptMetadata> queue = new LinkedList<>();
+    private final Set<String> queuedUrls = new HashSet<>();
+
+    public ScriptPrefetcher() {
+        Thread worker = new Thread(this::run, "script-prefetcher");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    public synchronized void prefetch(ScriptMetadata script) {
+        if (script == null || script.getFilename() == null) return;
+
+        String url = script.getRawScriptUrl();
+        if (queuedUrls.contains(url)) {
+            queue.removeIf(queued -> queued.getRawScriptUrl().equals(url));
+        } else {
+            queuedUrls.add(url);
+        }
+        queue.addFirst(script);
+
+        if (queue.size() > MAX_QUEUED) {
+            queuedUrls.remove(queue.removeLast().getRawScriptUrl());
+        }
+        notifyAll();
+    }
+
+    private void run() {
+        while (true) {
+            ScriptMetadata script;
+            synchronized (this) {
+                while (queue.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                script = queue.removeFirst();
+                queuedUrls.remove(script.getRawScriptUrl());
+            }
+
+            try {
+                ScriptService.prefetchScript(script);
+            } catch (IOException e) {
+                // Speculative only; the real download reports its own errors
+            } catch (RuntimeException e) {
+                // Keep the worker alive; it is the only one
+                e.printStackTrace();
+            }
+        }
+    }
+}
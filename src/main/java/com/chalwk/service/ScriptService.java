@@ -9,161 +9,899 @@
 
 package com.chalwk.service;
 
-import com.chalwk.model.ScriptCategory;
+import com.chalwk.metrics.MetricEvents;
+import com.chalwk.metrics.Metrics;
+import com.chalwk.model.MetadataSource;
 import com.chalwk.model.ScriptMetadata;
-import org.json.JSONObject;
+import com.chalwk.search.SearchIndex;
+import org.json.JSONException;
 
-import javax.swing.*;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class ScriptService {
 
-    private static final String METADATA_URL = "https://raw.githubusercontent.com/Chalwk/HALO-SCRIPT-PROJECTS/master/metadata.json";
+    private static final Path DATA_DIR = Paths.get(System.getProperty("user.home"), ".hsp-script-browser");
+    private static final Path SOURCES_FILE = DATA_DIR.resolve("sources.properties");
+    private static final Path SNAPSHOT_DIR = DATA_DIR.resolve("cache").resolve("snapshots");
+    private static final String SNAPSHOT_SUFFIX = ".catalog";
+    private static final Pattern SOURCE_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final List<MetadataSource> sources = loadSources();
+    private static final Map<MetadataSource, MetadataCache> metadataCaches = createMetadataCaches();
+    private static final ScriptStore scriptStore = new ScriptStore();
+    private static final ScriptBodyCache bodyCache =
+            new ScriptBodyCache(Long.getLong("hsp.prefetch.maxBytes", 16L * 1024 * 1024));
+
+    // The last catalog loaded, with the index restored from its snapshot if there was one, until it is taken
+    private static final AtomicReference<IndexedCatalog> indexedCatalog = new AtomicReference<>();
+
+    private static final AtomicInteger fetchThreadCount = new AtomicInteger();
+    private static final ExecutorService metadataFetcher = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "metadata-fetch-" + fetchThreadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
 
     public static List<ScriptMetadata> loadScriptsMetadata() {
         List<ScriptMetadata> scripts = new ArrayList<>();
+        if (loadCachedScriptsMetadata(scripts::add) > 0) return scripts;
 
         try {
-            String jsonContent = fetchUrlContent();
-            if (jsonContent != null) {
-                JSONObject metadata = new JSONObject(jsonContent);
-                parseCategoryScripts(metadata, "attractive", ScriptCategory.ATTRACTIVE, scripts);
-                parseCategoryScripts(metadata, "custom_games", ScriptCategory.CUSTOM_GAMES, scripts);
-                parseCategoryScripts(metadata, "utility", ScriptCategory.UTILITY, scripts);
-            }
-        } catch (Exception e) {
+            revalidateScriptsMetadata(scripts::add);
+        } catch (IOException e) {
             e.printStackTrace();
         }
 
         return scripts;
     }
 
-    private static void parseCategoryScripts(JSONObject metadata, String categoryKey,
-                                             ScriptCategory category, List<ScriptMetadata> scripts) {
-        if (metadata.has(categoryKey)) {
-            JSONObject categoryObj = metadata.getJSONObject(categoryKey);
-            for (String scriptKey : categoryObj.keySet()) {
-                JSONObject scriptObj = categoryObj.getJSONObject(scriptKey);
+    /**
+     * @return the configured metadata sources, highest priority first
+     */
+    public static List<MetadataSource> getSources() {
+        return Collections.unmodifiableList(sources);
+    }
 
-                ScriptMetadata script = new ScriptMetadata();
-                script.setCategory(category);
+    /**
+     * Streams the merged on-disk copies of every source's metadata.json into {@code onScript}
+     * without touching the network. When the caches are unchanged since the last load, the
+     * catalog comes from its binary snapshot instead of being parsed again.
+     *
+     * @return the number of scripts read, {@code 0} when nothing has been cached yet
+     */
+    public static int loadCachedScriptsMetadata(Consumer<ScriptMetadata> onScript) {
+        CatalogSnapshot snapshot = loadSnapshot();
+        if (snapshot != null) {
+            indexedCatalog.set(new IndexedCatalog(snapshot.getScripts(), snapshot.getSearchIndex(),
+                    snapshotFingerprint()));
+            snapshot.getScripts().forEach(onScript);
+            return snapshot.getScripts().size();
+        }
+
+        List<List<ScriptMetadata>> catalogs = new ArrayList<>();
+        for (MetadataSource source : sources) {
+            catalogs.add(loadCachedCatalog(source));
+        }
+        List<ScriptMetadata> merged = new ArrayList<>();
+        merge(catalogs, script -> {
+            merged.add(script);
+            onScript.accept(script);
+        });
+        if (!merged.isEmpty()) saveSnapshot(merged);
+        return merged.size();
+    }
+
+    /**
+     * Returns the search index of the catalog last loaded, restored from its snapshot or else
+     * built now and added to the snapshot, so it is built at most once per catalog. The loaded
+     * catalog is released by the first call, whether or not {@code scripts} match it.
+     *
+     * @return the index, or {@code null} if {@code scripts} are not that catalog, in that order
+     */
+    public static SearchIndex takeCatalogIndex(List<ScriptMetadata> scripts) {
+        IndexedCatalog indexed = indexedCatalog.getAndSet(null);
+        if (indexed == null || indexed.scripts.size() != scripts.size()) return null;
+        for (int i = 0; i < scripts.size(); i++) {
+            if (indexed.scripts.get(i) != scripts.get(i)) return null;
+        }
+        if (indexed.index != null) return indexed.index;
 
-                // Handle different JSON structures
-                if (scriptObj.has("title")) {
-                    script.setTitle(scriptObj.getString("title"));
-                } else if (scriptObj.has("truce")) {
-                    script.setTitle(scriptObj.getString("truce"));
+        SearchIndex index = SearchIndex.build(scripts);
+        // Unless a refresh has replaced the caches since, the next launch can restore it
+        if (indexed.fingerprint.equals(snapshotFingerprint())) writeSnapshot(scripts, index, indexed.fingerprint);
+        return index;
+    }
+
+    /**
+     * Drops the catalog kept for {@link #takeCatalogIndex}, for callers that load a catalog
+     * without wanting its index.
+     */
+    public static void releaseCatalogIndex() {
+        indexedCatalog.set(null);
+    }
+
+    /**
+     * Revalidates every source concurrently, each with a conditional request using its cached
+     * validators. A source that fails or does not answer within its timeout contributes its
+     * cached copy instead, so the whole call takes as long as the slowest source that responds
+     * in time. When any source changed, the merged catalog is handed to {@code onScript} and
+     * each changed body is written through to that source's cache.
+     * <p>
+     * With a single source there is nothing to merge, so its scripts reach {@code onScript}
+     * while metadata.json is still downloading. A download that then fails has already handed
+     * on part of the catalog.
+     *
+     * @return {@code false} when no source changed
+     * @throws IOException when no source could be reached, or every one sent an error or malformed JSON
+     */
+    public static boolean revalidateScriptsMetadata(Consumer<ScriptMetadata> onScript) throws IOException {
+        if (sources.size() == 1) return revalidateSingleSource(sources.get(0), onScript);
+
+        long start = System.nanoTime();
+        Map<MetadataSource, Future<List<ScriptMetadata>>> fetches = new LinkedHashMap<>();
+        for (MetadataSource source : sources) {
+            fetches.put(source, metadataFetcher.submit(() -> revalidateCatalog(source, script -> {
+            })));
+        }
+
+        List<List<ScriptMetadata>> catalogs = new ArrayList<>();
+        boolean modified = false;
+        IOException failure = null;
+        int failures = 0;
+
+        for (Map.Entry<MetadataSource, Future<List<ScriptMetadata>>> fetch : fetches.entrySet()) {
+            MetadataSource source = fetch.getKey();
+            long remaining = source.getTimeout().toNanos() - (System.nanoTime() - start);
+            try {
+                List<ScriptMetadata> fresh = fetch.getValue().get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                if (fresh != null) {
+                    catalogs.add(fresh);
+                    modified = true;
+                    continue;
                 }
+            } catch (TimeoutException e) {
+                fetch.getValue().cancel(true);
+                failure = new IOException(source + " did not respond within " + source.getTimeout().getSeconds() + "s");
+                failures++;
+                Metrics.METADATA_FAILURES.increment();
+                System.err.println(failure.getMessage());
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                failure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                failures++;
+                Metrics.METADATA_FAILURES.increment();
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                fetches.values().forEach(pending -> pending.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IOException("Catalog load interrupted", e);
+            }
+            catalogs.add(loadCachedCatalog(source));
+        }
 
-                if (scriptObj.has("shortDescription")) {
-                    script.setShortDescription(scriptObj.getString("shortDescription"));
+        if (failures == sources.size()) throw failure;
+        if (!modified) return false;
+
+        List<ScriptMetadata> merged = new ArrayList<>();
+        merge(catalogs, script -> {
+            merged.add(script);
+            onScript.accept(script);
+        });
+        saveSnapshot(merged);
+        return true;
+    }
+
+    /**
+     * Revalidates {@code source} on the calling thread, streaming its scripts straight from
+     * the parser. The HTTP timeouts stand in for the source timeout, since there is no cached
+     * copy of another source to fall back on.
+     */
+    private static boolean revalidateSingleSource(MetadataSource source, Consumer<ScriptMetadata> onScript)
+            throws IOException {
+        List<ScriptMetadata> merged = new ArrayList<>();
+        try {
+            if (revalidateCatalog(source, skipDuplicates(script -> {
+                merged.add(script);
+                onScript.accept(script);
+            })) == null) {
+                return false;
+            }
+        } catch (IOException e) {
+            Metrics.METADATA_FAILURES.increment();
+            throw e;
+        }
+        saveSnapshot(merged);
+        return true;
+    }
+
+    /**
+     * @return the newest snapshot taken of the current caches, or {@code null} if there is none
+     */
+    private static CatalogSnapshot loadSnapshot() {
+        List<Path> files = listSnapshotFiles();
+        if (files.isEmpty()) return null;
+
+        MetricEvents.MetadataParse event = new MetricEvents.MetadataParse();
+        event.begin();
+        long start = System.nanoTime();
+        String fingerprint = snapshotFingerprint();
+        for (int i = files.size() - 1; i >= 0; i--) {
+            try {
+                CatalogSnapshot snapshot = CatalogSnapshot.load(files.get(i), fingerprint, sources);
+                if (snapshot == null) continue;
+
+                Metrics.METADATA_PARSE.recordSince(start);
+                event.source = "snapshot";
+                event.scripts = snapshot.getScripts().size();
+                event.commit();
+                return snapshot;
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes {@code scripts} as the snapshot of the current caches and keeps them for
+     * {@link #takeCatalogIndex}. The snapshot gets no search index until one is taken, so a
+     * catalog nobody searches is never indexed.
+     */
+    private static void saveSnapshot(List<ScriptMetadata> scripts) {
+        String fingerprint = snapshotFingerprint();
+        indexedCatalog.set(new IndexedCatalog(scripts, null, fingerprint));
+        writeSnapshot(scripts, null, fingerprint);
+    }
+
+    /**
+     * Writes a snapshot, with {@code index} unless it is {@code null}. Each snapshot goes to a
+     * new file and older ones are removed afterwards, so a file that is still mapped is never
+     * overwritten.
+     */
+    private static void writeSnapshot(List<ScriptMetadata> scripts, SearchIndex index, String fingerprint) {
+        try {
+            Files.createDirectories(SNAPSHOT_DIR);
+            Path file = SNAPSHOT_DIR.resolve(System.currentTimeMillis() + SNAPSHOT_SUFFIX);
+            Path temp = Files.createTempFile(SNAPSHOT_DIR, "snapshot", ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    CatalogSnapshot.write(out, fingerprint, scripts, index);
                 }
+                AtomicFiles.move(temp, file);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
 
-                if (scriptObj.has("description")) {
-                    script.setDescription(scriptObj.getString("description"));
+            for (Path older : listSnapshotFiles()) {
+                if (older.equals(file)) continue;
+                try {
+                    Files.deleteIfExists(older);
+                } catch (IOException e) {
+                    // Still mapped (e.g. on Windows); it will be removed after a later save
                 }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static List<Path> listSnapshotFiles() {
+        if (!Files.isDirectory(SNAPSHOT_DIR)) return new ArrayList<>();
+        try (Stream<Path> files = Files.list(SNAPSHOT_DIR)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SNAPSHOT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Identifies the configured sources and the state of their caches, which is what a
+     * merged catalog is derived from.
+     */
+    private static String snapshotFingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        for (MetadataSource source : sources) {
+            fingerprint.append(source.getName()).append(' ').append(source.getMetadataUrl()).append(' ')
+                    .append(metadataCaches.get(source).getFingerprint()).append('\n');
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * @return the scripts of {@code source}'s cached metadata.json, empty when there is none
+     */
+    private static List<ScriptMetadata> loadCachedCatalog(MetadataSource source) {
+        MetadataCache cache = metadataCaches.get(source);
+        List<ScriptMetadata> scripts = new ArrayList<>();
+        MetricEvents.MetadataParse event = new MetricEvents.MetadataParse();
+        event.begin();
+        long start = System.nanoTime();
+        try (Reader reader = cache.openBody()) {
+            if (reader == null) return scripts;
+            MetadataStreamParser.parse(reader, source, scripts::add);
+        } catch (IOException | JSONException e) {
+            e.printStackTrace();
+            cache.clear();
+            scripts.clear();
+        }
+
+        Metrics.METADATA_PARSE.recordSince(start);
+        event.source = source.getName();
+        event.scripts = scripts.size();
+        event.commit();
+        return scripts;
+    }
+
+    /**
+     * Revalidates {@code source}, handing each script of a changed metadata.json to
+     * {@code onScript} as soon as it is parsed.
+     *
+     * @return the scripts of {@code source} if its metadata.json changed, {@code null} if not
+     */
+    private static List<ScriptMetadata> revalidateCatalog(MetadataSource source, Consumer<ScriptMetadata> onScript)
+            throws IOException {
+        MetadataCache cache = metadataCaches.get(source);
+        MetricEvents.MetadataFetch event = new MetricEvents.MetadataFetch();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            List<ScriptMetadata> scripts = source.isLocal()
+                    ? reloadLocalCatalog(source, cache, event, onScript)
+                    : fetchCatalog(source, cache, event, onScript);
+            event.scripts = scripts != null ? scripts.size() : 0;
+            return scripts;
+        } finally {
+            Metrics.METADATA_FETCH.recordSince(start);
+            Metrics.METADATA_BYTES.add(event.bytes);
+            event.source = source.getName();
+            event.commit();
+        }
+    }
 
-                if (scriptObj.has("filename")) {
-                    script.setFilename(scriptObj.getString("filename"));
+    private static List<ScriptMetadata> fetchCatalog(MetadataSource source, MetadataCache cache,
+                                                     MetricEvents.MetadataFetch event,
+                                                     Consumer<ScriptMetadata> onScript) throws IOException {
+        HttpRequest.Builder request = HttpService.newRequest(source.getMetadataUrl());
+
+        String etag = cache.getETag();
+        String lastModified = cache.getLastModified();
+        if (etag != null) request.header("If-None-Match", etag);
+        if (lastModified != null) request.header("If-Modified-Since", lastModified);
+
+        try (HttpService.Response response = HttpService.send(request.build())) {
+            int responseCode = response.statusCode();
+            event.status = responseCode;
+            if (responseCode == HTTP_NOT_MODIFIED) {
+                return null;
+            }
+            if (responseCode != HTTP_OK) {
+                throw new IOException(source + ": server returned HTTP code: " + responseCode);
+            }
+
+            List<ScriptMetadata> scripts = new ArrayList<>();
+            Path tempBody = cache.createTempBody();
+            try {
+                try (InputStream in = new CachingInputStream(response.body(), Files.newOutputStream(tempBody))) {
+                    MetadataStreamParser.parse(new InputStreamReader(in, StandardCharsets.UTF_8), source, script -> {
+                        scripts.add(script);
+                        onScript.accept(script);
+                    });
+                    in.transferTo(OutputStream.nullOutputStream());
+                    event.bytes = response.wireBytesRead();
+                } catch (JSONException e) {
+                    throw new IOException(source + ": malformed metadata.json: " + e.getMessage(), e);
                 }
+                cache.commit(tempBody, response.header("ETag"), response.header("Last-Modified"));
+            } finally {
+                Files.deleteIfExists(tempBody);
+            }
+            return scripts;
+        }
+    }
 
-                scripts.add(script);
+    /**
+     * Local checkouts are copied into the cache like a download, with the file's modification
+     * time standing in for Last-Modified, so an unchanged checkout reads as "not modified".
+     */
+    private static List<ScriptMetadata> reloadLocalCatalog(MetadataSource source, MetadataCache cache,
+                                                           MetricEvents.MetadataFetch event,
+                                                           Consumer<ScriptMetadata> onScript) throws IOException {
+        Path file = Paths.get(URI.create(source.getMetadataUrl()));
+        String lastModified = Files.getLastModifiedTime(file).toString();
+        if (lastModified.equals(cache.getLastModified())) return null;
+
+        List<ScriptMetadata> scripts = new ArrayList<>();
+        Path tempBody = cache.createTempBody();
+        try {
+            Files.copy(file, tempBody, StandardCopyOption.REPLACE_EXISTING);
+            event.bytes = Files.size(tempBody);
+            try (Reader reader = Files.newBufferedReader(tempBody, StandardCharsets.UTF_8)) {
+                MetadataStreamParser.parse(reader, source, script -> {
+                    scripts.add(script);
+                    onScript.accept(script);
+                });
+            } catch (JSONException e) {
+                throw new IOException(source + ": malformed metadata.json: " + e.getMessage(), e);
             }
+            cache.commit(tempBody, null, lastModified);
+        } finally {
+            Files.deleteIfExists(tempBody);
+        }
+        return scripts;
+    }
+
+    /**
+     * Hands {@code catalogs} (in source priority order) to {@code onScript}, skipping any
+     * script whose category and filename an earlier source already provided.
+     */
+    private static void merge(List<List<ScriptMetadata>> catalogs, Consumer<ScriptMetadata> onScript) {
+        Consumer<ScriptMetadata> merged = skipDuplicates(onScript);
+        for (List<ScriptMetadata> catalog : catalogs) {
+            catalog.forEach(merged);
         }
     }
 
-    public static boolean downloadScript(ScriptMetadata script, File outputFile, JProgressBar progressBar, JLabel statusLabel) {
+    /**
+     * @return a consumer passing scripts on to {@code onScript}, except any whose category and
+     * filename it has already passed on
+     */
+    private static Consumer<ScriptMetadata> skipDuplicates(Consumer<ScriptMetadata> onScript) {
+        Set<String> seen = new HashSet<>();
+        return script -> {
+            if (script.getFilename() == null
+                    || seen.add(script.getCategory().getFolderName() + "/" + script.getFilename())) {
+                onScript.accept(script);
+            }
+        };
+    }
+
+    /**
+     * Reads {@code ~/.hsp-script-browser/sources.properties}; without it, only upstream is used.
+     */
+    private static List<MetadataSource> loadSources() {
+        if (!Files.isRegularFile(SOURCES_FILE)) return Collections.singletonList(MetadataSource.UPSTREAM);
+
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(SOURCES_FILE, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return Collections.singletonList(MetadataSource.UPSTREAM);
+        }
+
+        List<MetadataSource> configured = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (String name : properties.getProperty("sources", "upstream").split("[,\\s]+")) {
+            if (name.isEmpty() || !names.add(name)) continue;
+            if (!SOURCE_NAME.matcher(name).matches()) {
+                System.err.println("Ignoring source with invalid name: " + name);
+                continue;
+            }
+
+            String location = properties.getProperty("source." + name,
+                    name.equals("upstream") ? MetadataSource.UPSTREAM_LOCATION : null);
+            String timeout = properties.getProperty("source." + name + ".timeout");
+            if (location == null) {
+                System.err.println("Ignoring source " + name + ": no source." + name + " location");
+                continue;
+            }
+            try {
+                configured.add(MetadataSource.fromLocation(name, location, timeout != null
+                        ? Duration.ofSeconds(Long.parseLong(timeout.trim()))
+                        : MetadataSource.DEFAULT_TIMEOUT));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring source " + name + ": " + e.getMessage());
+            }
+        }
+        return configured.isEmpty() ? Collections.singletonList(MetadataSource.UPSTREAM) : configured;
+    }
+
+    /**
+     * Upstream keeps the original cache directory; other sources get one of their own.
+     */
+    private static Map<MetadataSource, MetadataCache> createMetadataCaches() {
+        Path cacheDir = DATA_DIR.resolve("cache");
+        Map<MetadataSource, MetadataCache> caches = new HashMap<>();
+        for (MetadataSource source : sources) {
+            caches.put(source, new MetadataCache(source.getName().equals("upstream")
+                    ? cacheDir
+                    : cacheDir.resolve("sources").resolve(source.getName())));
+        }
+        return caches;
+    }
+
+    /**
+     * Receives byte-level progress while a script downloads; {@code contentLength} is
+     * {@code -1} when the server did not announce one. Called on the downloading thread.
+     */
+    public interface ProgressListener {
+        void progress(long bytesRead, long contentLength);
+    }
+
+    /**
+     * Downloads {@code script} to {@code target}. Bodies fetched recently are copied from the
+     * local {@link ScriptStore} without touching the network; older ones are revalidated
+     * with a conditional request first.
+     */
+    public static void downloadScript(ScriptMetadata script, Path target, ProgressListener listener)
+            throws IOException {
+        MetricEvents.ScriptDownload event = new MetricEvents.ScriptDownload();
+        event.begin();
+        long start = System.nanoTime();
         try {
-            String scriptUrl = script.getRawScriptUrl();
-            return downloadScriptFile(scriptUrl, outputFile, progressBar, statusLabel);
+            event.fromStore = downloadScript(script.getRawScriptUrl(), target, listener);
+            event.bytes = Files.size(target);
+            event.succeeded = true;
+            Metrics.DOWNLOAD_BYTES.add(event.bytes);
+        } catch (IOException e) {
+            Metrics.DOWNLOAD_FAILURES.increment();
+            throw e;
+        } finally {
+            Metrics.DOWNLOAD.recordSince(start);
+            event.url = script.getRawScriptUrl();
+            event.commit();
+        }
+    }
 
-        } catch (Exception e) {
-            SwingUtilities.invokeLater(() ->
-                    statusLabel.setText("Error downloading script: " + e.getMessage()));
-            return false;
+    /**
+     * @return {@code true} if the body came from the store, i.e. nothing was downloaded
+     */
+    private static boolean downloadScript(String scriptUrl, Path target, ProgressListener listener)
+            throws IOException {
+        ScriptStore.Entry stored = scriptStore.lookup(scriptUrl);
+        if (stored != null && scriptStore.isFresh(stored)) {
+            copyFromStore(stored, target, listener);
+            return true;
         }
+
+        FetchResult result = downloadScriptFile(scriptUrl, target, stored, listener);
+        if (result.notModified) {
+            scriptStore.markVerified(stored);
+            copyFromStore(stored, target, listener);
+            return true;
+        }
+
+        try {
+            scriptStore.put(scriptUrl, target, result.etag, result.lastModified);
+        } catch (IOException e) {
+            // The download itself succeeded; failing to cache it must not fail it
+            e.printStackTrace();
+        }
+        return false;
     }
 
-    private static boolean downloadScriptFile(String scriptUrl, File outputFile,
-                                              JProgressBar progressBar, JLabel statusLabel) {
+    /**
+     * Resolves where {@code script} is saved in {@code directory}. The filename comes from a
+     * metadata source, so one that is not a plain name (e.g. {@code ../../.bashrc}) is refused.
+     *
+     * @return the file directly inside {@code directory}, or {@code null} if the filename would
+     * place it anywhere else
+     */
+    public static Path resolveScriptFile(Path directory, ScriptMetadata script) {
+        String filename = script.getFilename();
+        if (filename == null) return null;
         try {
-            URL url = new URL(scriptUrl);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-
-            int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                SwingUtilities.invokeLater(() ->
-                        statusLabel.setText("Download failed. Server returned HTTP code: " + responseCode));
-                return false;
+            Path base = directory.toAbsolutePath().normalize();
+            Path target = base.resolve(filename).normalize();
+            if (!base.equals(target.getParent())) return null;
+            return directory.resolve(target.getFileName());
+        } catch (InvalidPathException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Makes sure the body of {@code script} is in the store, validated, and held in memory,
+     * so a following {@link #downloadScript} completes without waiting on the network.
+     */
+    public static void prefetchScript(ScriptMetadata script) throws IOException {
+        ScriptStore.Entry stored = ensureStored(script, false);
+        if (!bodyCache.contains(stored.getSha256())) {
+            bodyCache.put(stored.getSha256(), scriptStore.readBlob(stored));
+        }
+    }
+
+    /**
+     * Returns the store entry holding the body of {@code script}, fetching it first if it
+     * is missing. With {@code allowStale}, any stored copy is accepted without revalidation.
+     */
+    public static ScriptStore.Entry ensureStored(ScriptMetadata script, boolean allowStale) throws IOException {
+        String scriptUrl = script.getRawScriptUrl();
+
+        ScriptStore.Entry stored = scriptStore.lookup(scriptUrl);
+        if (stored == null || !(allowStale || scriptStore.isFresh(stored))) {
+            Path scratch = scriptStore.createTempFile();
+            try {
+                FetchResult result = downloadScriptFile(scriptUrl, scratch, stored, (bytesRead, length) -> {
+                });
+                if (result.notModified) {
+                    scriptStore.markVerified(stored);
+                } else {
+                    stored = scriptStore.put(scriptUrl, scratch, result.etag, result.lastModified);
+                }
+            } finally {
+                // The scratch name is never reused, so a part file left by a failed fetch could not be resumed
+                PartialDownload.load(scratch, scriptUrl).discard();
+                Files.deleteIfExists(scratch);
             }
+        }
+        return stored;
+    }
 
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-                 FileWriter writer = new FileWriter(outputFile)) {
+    /**
+     * Adds an existing copy of {@code script}'s body, served earlier with these validators, to
+     * the store unless it already holds one. The copy counts as stale, so the next
+     * {@link #ensureStored} revalidates it with a conditional request instead of downloading it.
+     */
+    public static void seedStore(ScriptMetadata script, Path body, String etag, String lastModified)
+            throws IOException {
+        if (scriptStore.lookup(script.getRawScriptUrl()) == null) {
+            scriptStore.seed(script.getRawScriptUrl(), body, etag, lastModified);
+        }
+    }
 
-                String line;
-                int lineCount = 0;
+    public static byte[] readStoredBody(ScriptStore.Entry stored) throws IOException {
+        byte[] body = bodyCache.get(stored.getSha256());
+        return body != null ? body : scriptStore.readBlob(stored);
+    }
 
-                while ((line = reader.readLine()) != null) {
-                    writer.write(line + "\n");
-                    lineCount++;
+    private static void copyFromStore(ScriptStore.Entry stored, Path target, ProgressListener listener)
+            throws IOException {
+        byte[] body = bodyCache.get(stored.getSha256());
+        if (body != null) {
+            Files.createDirectories(target.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".tmp");
+            try {
+                Files.write(temp, body);
+                AtomicFiles.move(temp, target);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } else {
+            scriptStore.copyTo(stored, target);
+        }
+        listener.progress(stored.getSize(), stored.getSize());
+    }
+
+    private static FetchResult downloadScriptFile(String scriptUrl, Path target, ScriptStore.Entry stored,
+                                                  ProgressListener listener) throws IOException {
+        if (scriptUrl.startsWith("file:")) return copyLocalFile(scriptUrl, target, listener);
+
+        PartialDownload partial = PartialDownload.load(target, scriptUrl);
+        long offset = partial.resumeOffset();
+
+        HttpRequest.Builder request = HttpService.newRequest(scriptUrl);
+        if (offset == 0 && stored != null) {
+            if (stored.getETag() != null) request.header("If-None-Match", stored.getETag());
+            if (stored.getLastModified() != null) request.header("If-Modified-Since", stored.getLastModified());
+        } else if (offset > 0) {
+            // Ranges address the identity encoding, which is what the part file holds
+            request.setHeader("Accept-Encoding", "identity");
+            request.header("Range", "bytes=" + offset + "-");
+            String ifRange = partial.ifRange();
+            if (ifRange != null) request.header("If-Range", ifRange);
+        }
 
-                    // Update progress every 10 lines
-                    if (lineCount % 10 == 0) {
-                        final int currentLines = lineCount;
-                        SwingUtilities.invokeLater(() -> {
-                            statusLabel.setText("Downloaded " + currentLines + " lines...");
-                            progressBar.setValue(Math.min(currentLines, 100));
-                        });
-                    }
+        try (HttpService.Response response = HttpService.send(request.build())) {
+            int responseCode = response.statusCode();
+            long totalLength;
+
+            if (responseCode == HTTP_NOT_MODIFIED && stored != null) {
+                return FetchResult.NOT_MODIFIED;
+            } else if (responseCode == HTTP_PARTIAL_CONTENT && offset > 0) {
+                long[] range = parseContentRange(response.header("Content-Range"));
+                if (range == null || range[0] != offset
+                        || (partial.getLength() > 0 && range[1] > 0 && range[1] != partial.getLength())) {
+                    partial.discard();
+                    throw new IOException("Server sent an unexpected range; restarting download");
                 }
+                totalLength = range[1];
+            } else if (responseCode == HTTP_OK) {
+                // Either a fresh download or the server ignored/rejected the Range request
+                offset = 0;
+                totalLength = response.contentLength();
+                partial.discard();
+                partial.begin(response.header("ETag"), response.header("Last-Modified"),
+                        response.header("Content-Encoding") == null ? totalLength : -1);
+            } else if (responseCode == HTTP_RANGE_NOT_SATISFIABLE) {
+                partial.discard();
+                throw new IOException("Partial download no longer matches the server; restarting download");
+            } else {
+                throw new IOException("Server returned HTTP code: " + responseCode);
             }
 
-            connection.disconnect();
+            // Progress is measured on the wire so it lines up with Content-Length under gzip
+            listener.progress(offset, totalLength);
 
-            SwingUtilities.invokeLater(() -> {
-                progressBar.setValue(100);
-                statusLabel.setText("Script downloaded successfully!");
-            });
+            Files.createDirectories(partial.getPartFile().toAbsolutePath().getParent());
+            try (ReadableByteChannel in = Channels.newChannel(response.body());
+                 FileChannel out = FileChannel.open(partial.getPartFile(), StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, offset > 0 ? StandardOpenOption.APPEND
+                                 : StandardOpenOption.TRUNCATE_EXISTING)) {
 
-            return true;
+                long start = offset;
+                copy(in, out, () -> listener.progress(start + response.wireBytesRead(), totalLength));
+
+                long bytesRead = offset + response.wireBytesRead();
+                if (totalLength > 0 && bytesRead != totalLength) {
+                    throw new IOException("Connection closed after " + bytesRead + " of " + totalLength + " bytes");
+                }
+            }
 
-        } catch (Exception e) {
-            SwingUtilities.invokeLater(() ->
-                    statusLabel.setText("Download error: " + e.getMessage()));
-            return false;
+            // Only a complete file ever replaces the target; failures leave the part file to resume from
+            partial.complete(target);
+            return new FetchResult(false, response.header("ETag"), response.header("Last-Modified"));
         }
     }
 
-    private static String fetchUrlContent() {
+    /**
+     * Scripts of local checkouts are copied straight from disk, with the modification time
+     * standing in for Last-Modified.
+     */
+    private static FetchResult copyLocalFile(String scriptUrl, Path target, ProgressListener listener)
+            throws IOException {
+        Path source = Paths.get(URI.create(scriptUrl));
+        long size = Files.size(source);
+        listener.progress(0, size);
+
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "." + target.getFileName(), ".tmp");
         try {
-            URL url = new URL(ScriptService.METADATA_URL);
-            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
-            connection.setRequestMethod("GET");
-            connection.setConnectTimeout(10000);
-            connection.setReadTimeout(10000);
-
-            StringBuilder content = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line);
-                }
+            Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+            AtomicFiles.move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        listener.progress(size, size);
+        return new FetchResult(false, null, Files.getLastModifiedTime(source).toString());
+    }
+
+    /**
+     * Copies {@code in} to {@code out} through one direct buffer, calling {@code onRead} after each read.
+     */
+    static void copy(ReadableByteChannel in, WritableByteChannel out, Runnable onRead) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(COPY_BUFFER_SIZE);
+        while (in.read(buffer) != -1) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
             }
+            buffer.clear();
+            onRead.run();
+        }
+    }
 
-            connection.disconnect();
-            return content.toString();
+    /**
+     * Parses {@code bytes <start>-<end>/<total>}.
+     *
+     * @return {start, total} with total {@code -1} when given as "*", or {@code null} if malformed
+     */
+    private static long[] parseContentRange(String contentRange) {
+        if (contentRange == null || !contentRange.startsWith("bytes ")) return null;
+        try {
+            String spec = contentRange.substring(6).trim();
+            int dash = spec.indexOf('-');
+            int slash = spec.indexOf('/');
+            if (dash < 0 || slash < dash) return null;
 
-        } catch (Exception e) {
-            e.printStackTrace();
+            long start = Long.parseLong(spec.substring(0, dash));
+            String total = spec.substring(slash + 1);
+            return new long[]{start, "*".equals(total) ? -1 : Long.parseLong(total)};
+        } catch (NumberFormatException e) {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    private static class IndexedCatalog {
+        final List<ScriptMetadata> scripts;
+        final SearchIndex index;
+        final String fingerprint;
+
+        IndexedCatalog(List<ScriptMetadata> scripts, SearchIndex index, String fingerprint) {
+            this.scripts = scripts;
+            this.index = index;
+            this.fingerprint = fingerprint;
+        }
+    }
+
+    private static class FetchResult {
+        static final FetchResult NOT_MODIFIED = new FetchResult(true, null, null);
+
+        final boolean notModified;
+        final String etag;
+        final String lastModified;
+
+        FetchResult(boolean notModified, String etag, String lastModified) {
+            this.notModified = notModified;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+    }
+
+    /**
+     * Copies every byte read from the network into the cache file as the parser consumes it.
+     */
+    private static class CachingInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        CachingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) copy.write(b);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) copy.write(buffer, offset, n);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                copy.close();
+            }
+        }
+    }
+}
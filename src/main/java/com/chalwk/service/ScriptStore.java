@@ -0,0 +1,351 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of downloaded script bodies. Blobs are named by their SHA-256,
+ * so identical content is kept once, and an index maps each script URL to its blob and
+ * the HTTP validators it was served with. The least recently used entries are evicted
+ * once the blobs exceed the size limit.
+ */
+public class ScriptStore {
+
+    private static final String INDEX_FILE = "index.properties";
+    private static final String BLOB_DIR = "blobs";
+    private static final String SCRATCH_PREFIX = "fetch";
+    private static final long SCRATCH_MAX_AGE_MILLIS = 24L * 60 * 60 * 1000;
+
+    private final Path storeDir;
+    private final long maxBytes;
+    private final long freshMillis;
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    public ScriptStore() {
+        this(Paths.get(System.getProperty("user.home"), ".hsp-script-browser", "store"),
+                Long.getLong("hsp.store.maxBytes", 256L * 1024 * 1024),
+                Long.getLong("hsp.store.freshMillis", 60L * 60 * 1000));
+    }
+
+    public ScriptStore(Path storeDir, long maxBytes, long freshMillis) {
+        this.storeDir = storeDir;
+        this.maxBytes = maxBytes;
+        this.freshMillis = freshMillis;
+        loadIndex();
+        removeAbandonedScratchFiles();
+    }
+
+    /**
+     * @return the entry for {@code url} if its blob is still on disk, otherwise {@code null}
+     */
+    public synchronized Entry lookup(String url) {
+        Entry entry = entries.get(url);
+        if (entry != null && !Files.isRegularFile(blobPath(entry.sha256))) {
+            entries.remove(url);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * @return whether {@code entry} was validated recently enough to be used without asking the server
+     */
+    public boolean isFresh(Entry entry) {
+        return System.currentTimeMillis() - entry.verifiedAt < freshMillis;
+    }
+
+    /**
+     * Copies the blob of {@code entry} to {@code target}, replacing it atomically.
+     */
+    public synchronized void copyTo(Entry entry, Path target) throws IOException {
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            Files.copy(blobPath(entry.sha256), temp, StandardCopyOption.REPLACE_EXISTING);
+            AtomicFiles.move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        entry.lastAccess = System.currentTimeMillis();
+        saveIndex();
+    }
+
+    public byte[] readBlob(Entry entry) throws IOException {
+        return Files.readAllBytes(blobPath(entry.sha256));
+    }
+
+    /**
+     * Creates a scratch file inside the store for a body that is about to be {@link #put}.
+     */
+    public Path createTempFile() throws IOException {
+        Files.createDirectories(storeDir);
+        return Files.createTempFile(storeDir, SCRATCH_PREFIX, ".tmp");
+    }
+
+    /**
+     * Marks {@code entry} as confirmed by the server (e.g. after a 304 Not Modified).
+     */
+    public synchronized void markVerified(Entry entry) {
+        entry.verifiedAt = System.currentTimeMillis();
+        saveIndex();
+    }
+
+    /**
+     * Adds the contents of {@code file} as the current body of {@code url}.
+     */
+    public synchronized Entry put(String url, Path file, String etag, String lastModified) throws IOException {
+        return put(url, file, etag, lastModified, System.currentTimeMillis());
+    }
+
+    /**
+     * Adds the contents of {@code file} as a body of {@code url} that has not been validated
+     * yet, so it is only used after the server confirms it.
+     */
+    public synchronized Entry seed(String url, Path file, String etag, String lastModified) throws IOException {
+        return put(url, file, etag, lastModified, 0);
+    }
+
+    private Entry put(String url, Path file, String etag, String lastModified, long verifiedAt) throws IOException {
+        Path blobDir = storeDir.resolve(BLOB_DIR);
+        Files.createDirectories(blobDir);
+
+        Path temp = Files.createTempFile(blobDir, "blob", ".tmp");
+        String sha256;
+        try {
+            MessageDigest digest = newDigest();
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            sha256 = toHex(digest.digest());
+
+            Path blob = blobPath(sha256);
+            if (!Files.exists(blob)) {
+                AtomicFiles.move(temp, blob);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        Entry entry = new Entry(sha256, etag, lastModified, Files.size(blobPath(sha256)), verifiedAt,
+                System.currentTimeMillis());
+        entries.put(url, entry);
+
+        evict();
+        saveIndex();
+        return entry;
+    }
+
+    private void evict() {
+        Map<String, Long> blobSizes = new HashMap<>();
+        for (Entry entry : entries.values()) {
+            blobSizes.put(entry.sha256, entry.size);
+        }
+        long total = 0;
+        for (long size : blobSizes.values()) {
+            total += size;
+        }
+        if (total <= maxBytes) return;
+
+        List<Map.Entry<String, Entry>> byAge = new ArrayList<>(entries.entrySet());
+        byAge.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+
+        for (Map.Entry<String, Entry> oldest : byAge) {
+            if (total <= maxBytes) break;
+            entries.remove(oldest.getKey());
+
+            String sha256 = oldest.getValue().sha256;
+            if (!isReferenced(sha256)) {
+                total -= oldest.getValue().size;
+                try {
+                    Files.deleteIfExists(blobPath(sha256));
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private boolean isReferenced(String sha256) {
+        for (Entry entry : entries.values()) {
+            if (entry.sha256.equals(sha256)) return true;
+        }
+        return false;
+    }
+
+    private Path blobPath(String sha256) {
+        return storeDir.resolve(BLOB_DIR).resolve(sha256);
+    }
+
+    private void loadIndex() {
+        Path indexFile = storeDir.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(indexFile)) return;
+
+        Properties index = new Properties();
+        try (InputStream in = Files.newInputStream(indexFile)) {
+            index.load(in);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return;
+        }
+
+        for (String url : index.stringPropertyNames()) {
+            Entry entry = Entry.parse(index.getProperty(url));
+            if (entry != null) entries.put(url, entry);
+        }
+        removeOrphanBlobs();
+    }
+
+    private void saveIndex() {
+        Properties index = new Properties();
+        entries.forEach((url, entry) -> index.setProperty(url, entry.format()));
+
+        try {
+            Files.createDirectories(storeDir);
+            Path temp = Files.createTempFile(storeDir, INDEX_FILE, ".tmp");
+            try {
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    index.store(out, "HSP Script Browser script store");
+                }
+                AtomicFiles.move(temp, storeDir.resolve(INDEX_FILE));
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void removeOrphanBlobs() {
+        Set<String> referenced = new HashSet<>();
+        for (Entry entry : entries.values()) {
+            referenced.add(entry.sha256);
+        }
+
+        Path blobDir = storeDir.resolve(BLOB_DIR);
+        if (!Files.isDirectory(blobDir)) return;
+        try (Stream<Path> blobs = Files.list(blobDir)) {
+            for (Path blob : (Iterable<Path>) blobs::iterator) {
+                if (!referenced.contains(blob.getFileName().toString())) {
+                    Files.deleteIfExists(blob);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Deletes scratch files, and the part files of their downloads, left behind by a process
+     * that died mid-fetch. Only old ones go, since another instance may be fetching right now.
+     */
+    private void removeAbandonedScratchFiles() {
+        if (!Files.isDirectory(storeDir)) return;
+        long cutoff = System.currentTimeMillis() - SCRATCH_MAX_AGE_MILLIS;
+        try (Stream<Path> files = Files.list(storeDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().startsWith(SCRATCH_PREFIX)
+                        && Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Index record: which blob holds a URL's body and the validators it was served with.
+     */
+    public static class Entry {
+        private final String sha256;
+        private final String etag;
+        private final String lastModified;
+        private final long size;
+        private long verifiedAt;
+        private long lastAccess;
+
+        Entry(String sha256, String etag, String lastModified, long size, long verifiedAt, long lastAccess) {
+            this.sha256 = sha256;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.verifiedAt = verifiedAt;
+            this.lastAccess = lastAccess;
+        }
+
+        public String getSha256() {
+            return sha256;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        String format() {
+            return String.join("\t", sha256, etag != null ? etag : "", lastModified != null ? lastModified : "",
+                    Long.toString(size), Long.toString(verifiedAt), Long.toString(lastAccess));
+        }
+
+        static Entry parse(String value) {
+            String[] fields = value.split("\t", -1);
+            if (fields.length != 6) return null;
+            try {
+                return new Entry(fields[0], fields[1].isEmpty() ? null : fields[1],
+                        fields[2].isEmpty() ? null : fields[2], Long.parseLong(fields[3]),
+                        Long.parseLong(fields[4]), Long.parseLong(fields[5]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -15,43 +15,51 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 public class Buttons extends JButton {
-    private Color backgroundColor = new Color(59, 89, 152);
-    private final Color hoverColor = new Color(45, 75, 138);
-    private final Color pressedColor = new Color(35, 65, 128);
+    private static final int CORNER_RADIUS = 8;
+    private static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    private Color backgroundColor = Palette.PRIMARY;
+
+    // Text position, measured again only when the text, font or size changes
+    private String measuredText;
+    private Font measuredFont;
+    private int measuredWidth = -1;
+    private int measuredHeight = -1;
+    private int textX;
+    private int textY;
 
     public Buttons(String text) {
         super(text);
         setContentAreaFilled(false);
         setFocusPainted(false);
         setBorderPainted(false);
-        Color textColor = Color.WHITE;
-        setForeground(textColor);
+        setForeground(Palette.TEXT_ON_PRIMARY);
         setFont(new Font("Segoe UI", Font.BOLD, 13));
         setPreferredSize(new Dimension(140, 40));
-        setCursor(new Cursor(Cursor.HAND_CURSOR));
+        setCursor(HAND_CURSOR);
 
         addMouseListener(new MouseAdapter() {
             @Override
             public void mouseEntered(MouseEvent e) {
-                backgroundColor = hoverColor;
+                backgroundColor = Palette.PRIMARY_HOVER;
                 repaint();
             }
 
             @Override
             public void mouseExited(MouseEvent e) {
-                backgroundColor = new Color(59, 89, 152);
+                backgroundColor = Palette.PRIMARY;
                 repaint();
             }
 
             @Override
             public void mousePressed(MouseEvent e) {
-                backgroundColor = pressedColor;
+                backgroundColor = Palette.PRIMARY_PRESSED;
                 repaint();
             }
 
             @Override
             public void mouseReleased(MouseEvent e) {
-                backgroundColor = hoverColor;
+                backgroundColor = Palette.PRIMARY_HOVER;
                 repaint();
             }
         });
@@ -59,21 +67,34 @@ public class Buttons extends JButton {
 
     @Override
     protected void paintComponent(Graphics g) {
-        Graphics2D g2 = (Graphics2D) g.create();
+        Graphics2D g2 = (Graphics2D) g;
+        Object antialiasing = g2.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
         // Paint background
         g2.setColor(backgroundColor);
-        int cornerRadius = 8;
-        g2.fillRoundRect(0, 0, getWidth(), getHeight(), cornerRadius, cornerRadius);
+        g2.fillRoundRect(0, 0, getWidth(), getHeight(), CORNER_RADIUS, CORNER_RADIUS);
 
         // Paint text
-        FontMetrics fm = g2.getFontMetrics();
-        int x = (getWidth() - fm.stringWidth(getText())) / 2;
-        int y = (getHeight() - fm.getHeight()) / 2 + fm.getAscent();
+        String text = getText();
+        if (text != measuredText || getFont() != measuredFont
+                || getWidth() != measuredWidth || getHeight() != measuredHeight) {
+            measureText(g2, text);
+        }
         g2.setColor(getForeground());
-        g2.drawString(getText(), x, y);
+        g2.drawString(text, textX, textY);
+
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing);
+    }
+
+    private void measureText(Graphics2D g2, String text) {
+        FontMetrics fm = g2.getFontMetrics();
+        textX = (getWidth() - fm.stringWidth(text)) / 2;
+        textY = (getHeight() - fm.getHeight()) / 2 + fm.getAscent();
 
-        g2.dispose();
+        measuredText = text;
+        measuredFont = getFont();
+        measuredWidth = getWidth();
+        measuredHeight = getHeight();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,171 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.ui;
+
+import com.chalwk.metrics.Counter;
+import com.chalwk.metrics.Histogram;
+import com.chalwk.metrics.Metrics;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Non-modal window showing the live {@link Metrics}: latency percentiles of every timed
+ * operation, the running totals, and download throughput. Refreshes once a second and can
+ * export everything as JSON.
+ */
+public class DiagnosticsDialog extends JDialog {
+
+    private static final String[] COLUMNS = {"Metric", "Count", "Mean (ms)", "p50 (ms)", "p95 (ms)", "p99 (ms)", "Max (ms)"};
+    private static final int REFRESH_MILLIS = 1000;
+
+    private final List<Histogram> histograms = Metrics.getHistograms();
+    private final List<Counter> counters = Metrics.getCounters();
+    private final MetricsTableModel tableModel = new MetricsTableModel();
+    private final JLabel throughputLabel;
+    private final Timer refreshTimer;
+
+    public DiagnosticsDialog(Frame owner) {
+        super(owner, "Diagnostics", false);
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(new EmptyBorder(15, 15, 15, 15));
+
+        JTable table = new JTable(tableModel);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        table.setRowHeight(24);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(200);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        throughputLabel = new JLabel();
+        throughputLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        throughputLabel.setForeground(new Color(100, 100, 100));
+
+        Buttons exportButton = new Buttons("Export JSON...");
+        exportButton.addActionListener(e -> exportJson());
+
+        Buttons resetButton = new Buttons("Reset");
+        resetButton.addActionListener(e -> {
+            Metrics.reset();
+            refresh();
+        });
+
+        Buttons closeButton = new Buttons("Close");
+        closeButton.addActionListener(e -> dispose());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttonPanel.setBackground(Color.WHITE);
+        buttonPanel.add(exportButton);
+        buttonPanel.add(resetButton);
+        buttonPanel.add(closeButton);
+
+        JPanel southPanel = new JPanel(new BorderLayout(0, 8));
+        southPanel.setBackground(Color.WHITE);
+        southPanel.add(throughputLabel, BorderLayout.CENTER);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        panel.add(southPanel, BorderLayout.SOUTH);
+
+        refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refreshTimer.stop();
+            }
+        });
+
+        setContentPane(panel);
+        setSize(760, 420);
+        setLocationRelativeTo(owner);
+        refresh();
+        refreshTimer.start();
+    }
+
+    private void refresh() {
+        tableModel.fireTableRowsUpdated(0, tableModel.getRowCount() - 1);
+        throughputLabel.setText(String.format("Download throughput: %.1f KB/s while downloading",
+                Metrics.getDownloadThroughput() / 1024));
+    }
+
+    private void exportJson() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setSelectedFile(new File("hsp-diagnostics.json"));
+        if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        try {
+            Files.write(fileChooser.getSelectedFile().toPath(),
+                    Metrics.toJson().toString(2).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(this, "Failed to export diagnostics: " + e.getMessage(),
+                    "Export Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    private class MetricsTableModel extends AbstractTableModel {
+        @Override
+        public int getRowCount() {
+            return histograms.size() + counters.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            if (rowIndex >= histograms.size()) {
+                Counter counter = counters.get(rowIndex - histograms.size());
+                switch (columnIndex) {
+                    case 0:
+                        return counter.getName();
+                    case 1:
+                        return counter.get();
+                    default:
+                        return "";
+                }
+            }
+
+            Histogram histogram = histograms.get(rowIndex);
+            switch (columnIndex) {
+                case 0:
+                    return histogram.getName();
+                case 1:
+                    return histogram.getCount();
+                case 2:
+                    return Metrics.toMillis(histogram.getMeanNanos());
+                case 3:
+                    return Metrics.toMillis(histogram.getPercentileNanos(0.50));
+                case 4:
+                    return Metrics.toMillis(histogram.getPercentileNanos(0.95));
+                case 5:
+                    return Metrics.toMillis(histogram.getPercentileNanos(0.99));
+                default:
+                    return Metrics.toMillis(histogram.getMaxNanos());
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.ui;
+
+import com.chalwk.service.DownloadBatch;
+import com.chalwk.service.DownloadManager;
+import com.chalwk.service.DownloadTask;
+
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.AbstractTableModel;
+import java.awt.*;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-modal window listing every script of a bulk download with its own state and
+ * progress, the aggregate progress of the batch and a summary once it has finished.
+ */
+public class DownloadQueueDialog extends JDialog implements DownloadManager.Listener {
+
+    private static final String[] COLUMNS = {"Script", "Status", "Progress"};
+
+    private final List<DownloadTask> tasks;
+    private final Map<DownloadTask, Integer> rows = new IdentityHashMap<>();
+    private final TaskTableModel tableModel = new TaskTableModel();
+    private final JProgressBar overallProgressBar;
+    private final JLabel summaryLabel;
+    private final Buttons retryButton;
+
+    private DownloadBatch batch;
+
+    public DownloadQueueDialog(Frame owner, List<DownloadTask> tasks) {
+        super(owner, "Downloading " + tasks.size() + " Scripts", false);
+        this.tasks = tasks;
+        for (int i = 0; i < tasks.size(); i++) {
+            rows.put(tasks.get(i), i);
+        }
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBackground(Color.WHITE);
+        panel.setBorder(new EmptyBorder(15, 15, 15, 15));
+
+        JTable table = new JTable(tableModel);
+        table.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        table.setRowHeight(24);
+        table.setFillsViewportHeight(true);
+        table.getColumnModel().getColumn(0).setPreferredWidth(260);
+        panel.add(new JScrollPane(table), BorderLayout.CENTER);
+
+        overallProgressBar = new JProgressBar(0, 100);
+        overallProgressBar.setStringPainted(true);
+        overallProgressBar.setForeground(new Color(59, 89, 152));
+        overallProgressBar.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+
+        summaryLabel = new JLabel("Waiting for downloads to start...");
+        summaryLabel.setFont(new Font("Segoe UI", Font.PLAIN, 12));
+        summaryLabel.setForeground(new Color(100, 100, 100));
+
+        retryButton = new Buttons("Retry Failed");
+        retryButton.setEnabled(false);
+        retryButton.addActionListener(e -> {
+            retryButton.setEnabled(false);
+            batch.retryFailed();
+        });
+
+        Buttons closeButton = new Buttons("Close");
+        closeButton.addActionListener(e -> dispose());
+
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 0));
+        buttonPanel.setBackground(Color.WHITE);
+        buttonPanel.add(retryButton);
+        buttonPanel.add(closeButton);
+
+        JPanel southPanel = new JPanel(new BorderLayout(0, 8));
+        southPanel.setBackground(Color.WHITE);
+        southPanel.add(overallProgressBar, BorderLayout.NORTH);
+        southPanel.add(summaryLabel, BorderLayout.CENTER);
+        southPanel.add(buttonPanel, BorderLayout.SOUTH);
+        panel.add(southPanel, BorderLayout.SOUTH);
+
+        setContentPane(panel);
+        setSize(560, 420);
+        setLocationRelativeTo(owner);
+    }
+
+    public void setBatch(DownloadBatch batch) {
+        this.batch = batch;
+    }
+
+    @Override
+    public void taskUpdated(DownloadTask task) {
+        SwingUtilities.invokeLater(() -> {
+            Integer row = rows.get(task);
+            if (row != null) {
+                tableModel.fireTableRowsUpdated(row, row);
+            }
+            updateOverallProgress();
+        });
+    }
+
+    @Override
+    public void batchFinished(DownloadBatch batch) {
+        SwingUtilities.invokeLater(() -> {
+            updateOverallProgress();
+
+            int completed = batch.getCompletedCount();
+            int failed = batch.getFailedCount();
+            summaryLabel.setText(String.format("Downloaded %d of %d scripts (%d failed, %d KB)",
+                    completed, tasks.size(), failed, batch.getBytesRead() / 1024));
+            retryButton.setEnabled(failed > 0);
+
+            StringBuilder message = new StringBuilder()
+                    .append(completed).append(" of ").append(tasks.size()).append(" scripts downloaded successfully.");
+            for (DownloadTask task : batch.getFailedTasks()) {
+                message.append("\n\nFailed: ").append(task.getScript().getFilename())
+                        .append(" - ").append(task.getError());
+            }
+            JOptionPane.showMessageDialog(this, message.toString(), "Download Summary",
+                    failed > 0 ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+        });
+    }
+
+    private void updateOverallProgress() {
+        if (batch == null) return;
+        int percent = (int) Math.round(batch.getProgress() * 100);
+        overallProgressBar.setValue(percent);
+        if (!batch.isFinished()) {
+            summaryLabel.setText(String.format("%d of %d scripts done",
+                    batch.getCompletedCount() + batch.getFailedCount(), tasks.size()));
+        }
+    }
+
+    private class TaskTableModel extends AbstractTableModel {
+        @Override
+        public int getRowCount() {
+            return tasks.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Object getValueAt(int rowIndex, int columnIndex) {
+            DownloadTask task = tasks.get(rowIndex);
+            switch (columnIndex) {
+                case 0:
+                    return task.getScript().getTitle();
+                case 1:
+                    if (task.getState() == DownloadTask.State.FAILED) return "Failed: " + task.getError();
+                    if (task.getAttempts() > 1) return task.getState() + " (attempt " + task.getAttempts() + ")";
+                    return task.getState().toString();
+                default:
+                    return Math.round(task.getFraction() * 100) + "%";
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.ui;
+
+import java.awt.*;
+
+/**
+ * Shared colours and strokes for the custom-painted components, created once instead of
+ * on every paint.
+ */
+public final class Palette {
+
+    public static final Color PRIMARY = new Color(59, 89, 152);
+    public static final Color PRIMARY_HOVER = new Color(45, 75, 138);
+    public static final Color PRIMARY_PRESSED = new Color(35, 65, 128);
+
+    public static final Color TEXT = new Color(60, 60, 60);
+    public static final Color TEXT_SECONDARY = new Color(120, 120, 120);
+    public static final Color TEXT_ON_PRIMARY = Color.WHITE;
+    public static final Color TEXT_SECONDARY_ON_PRIMARY = new Color(220, 220, 255);
+
+    public static final Color ROW = Color.WHITE;
+    public static final Color ROW_ALTERNATE = new Color(250, 250, 250);
+
+    public static final Stroke SELECTION_STROKE = new BasicStroke(2);
+
+    private Palette() {
+    }
+}
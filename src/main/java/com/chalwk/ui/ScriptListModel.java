@@ -0,0 +1,206 @@
+/**
+ * HSP-Script-Browser
+ * Copyright (c) 2025 Jericho Crosby (Chalwk)
+ * <p>
+ * This project is licensed under the MIT License.
+ * See LICENSE file for details:
+ * https://github.com/Chalwk/HSP-Script-Browser/blob/main/LICENSE
+ */
+
+package com.chalwk.ui;
+
+import com.chalwk.model.ScriptMetadata;
+import com.chalwk.search.RankedList;
+
+import javax.swing.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * List model for the script list that applies new results as a diff. Rows that stay are
+ * kept, and only the removed, inserted and replaced intervals are announced, so the list
+ * keeps its selection and scroll position and repaints only what changed.
+ * <p>
+ * Scripts are matched by category and filename, which is what their URL is made of, so a
+ * refreshed catalog with new instances of the same scripts still diffs as "unchanged". When
+ * the retained rows were reordered (e.g. by ranking), a filename repeats, or the change is
+ * too fragmented, the differing range is replaced in bulk.
+ * <p>
+ * Search results that are still being ranked lazily ({@link RankedList}) are always replaced
+ * in bulk and kept as they are, so the list only ever reads the rows it shows.
+ */
+public class ScriptListModel extends AbstractListModel<ScriptMetadata> {
+
+    // Beyond this many add/remove intervals one bulk event is cheaper for the list to process
+    private static final int MAX_INTERVAL_EVENTS = 64;
+
+    private List<ScriptMetadata> scripts = new ArrayList<>();
+
+    @Override
+    public int getSize() {
+        return scripts.size();
+    }
+
+    @Override
+    public ScriptMetadata getElementAt(int index) {
+        return scripts.get(index);
+    }
+
+    /**
+     * Replaces the contents with {@code newScripts}, firing the smallest set of events it can.
+     */
+    public void setScripts(List<ScriptMetadata> newScripts) {
+        List<ScriptMetadata> oldScripts = scripts;
+        if (isPartlyRanked(oldScripts) || isPartlyRanked(newScripts)) {
+            replaceRange(newScripts, 0, oldScripts.size(), newScripts.size());
+            return;
+        }
+
+        // Skip the common head and tail
+        int prefix = 0;
+        int limit = Math.min(oldScripts.size(), newScripts.size());
+        while (prefix < limit && oldScripts.get(prefix) == newScripts.get(prefix)) prefix++;
+
+        int oldEnd = oldScripts.size();
+        int newEnd = newScripts.size();
+        while (oldEnd > prefix && newEnd > prefix && oldScripts.get(oldEnd - 1) == newScripts.get(newEnd - 1)) {
+            oldEnd--;
+            newEnd--;
+        }
+        if (prefix == oldEnd && prefix == newEnd) return;
+
+        if (!applyDiff(oldScripts, newScripts, prefix, oldEnd, newEnd)) {
+            replaceRange(newScripts, prefix, oldEnd, newEnd);
+        }
+    }
+
+    /**
+     * Appends {@code moreScripts} after the current rows.
+     */
+    public void addScripts(List<ScriptMetadata> moreScripts) {
+        if (moreScripts.isEmpty()) return;
+        if (scripts instanceof RankedList) scripts = new ArrayList<>(scripts);
+
+        int first = scripts.size();
+        scripts.addAll(moreScripts);
+        fireIntervalAdded(this, first, scripts.size() - 1);
+    }
+
+    private boolean applyDiff(List<ScriptMetadata> oldScripts, List<ScriptMetadata> newScripts,
+                              int prefix, int oldEnd, int newEnd) {
+        Map<String, Integer> newPositions = new HashMap<>();
+        for (int i = prefix; i < newEnd; i++) {
+            if (newPositions.put(keyOf(newScripts.get(i)), i) != null) return false;
+        }
+
+        // Retained rows must keep their relative order, and the edit must stay small in events
+        BitSet keptOld = new BitSet(oldEnd - prefix);
+        BitSet keptNew = new BitSet(newEnd - prefix);
+        int lastPosition = -1;
+        int removedRuns = 0;
+        boolean previousRemoved = false;
+        for (int i = prefix; i < oldEnd; i++) {
+            ScriptMetadata script = oldScripts.get(i);
+            Integer position = newPositions.get(keyOf(script));
+            if (position == null || newScripts.get(position).getCategory() != script.getCategory()) {
+                if (!previousRemoved) removedRuns++;
+                previousRemoved = true;
+                continue;
+            }
+            if (position <= lastPosition) return false;
+            keptOld.set(i - prefix);
+            keptNew.set(position - prefix);
+            lastPosition = position;
+            previousRemoved = false;
+        }
+
+        int insertedRuns = 0;
+        boolean previousInserted = false;
+        for (int i = prefix; i < newEnd; i++) {
+            boolean inserted = !keptNew.get(i - prefix);
+            if (inserted && !previousInserted) insertedRuns++;
+            previousInserted = inserted;
+        }
+        if (removedRuns + insertedRuns > MAX_INTERVAL_EVENTS) return false;
+
+        scripts = new ArrayList<>(oldScripts);
+
+        // Removals from the back, so earlier indices stay valid
+        int i = oldEnd - 1;
+        while (i >= prefix) {
+            if (keptOld.get(i - prefix)) {
+                i--;
+                continue;
+            }
+            int runEnd = i;
+            while (i >= prefix && !keptOld.get(i - prefix)) i--;
+            scripts.subList(i + 1, runEnd + 1).clear();
+            fireIntervalRemoved(this, i + 1, runEnd);
+        }
+
+        // Insertions front to back; retained rows already sit at their final index
+        int index = prefix;
+        while (index < newEnd) {
+            if (keptNew.get(index - prefix)) {
+                int runStart = index;
+                while (index < newEnd && keptNew.get(index - prefix)
+                        && scripts.get(index) != newScripts.get(index)) {
+                    scripts.set(index, newScripts.get(index));
+                    index++;
+                }
+                if (index > runStart) {
+                    fireContentsChanged(this, runStart, index - 1);
+                } else {
+                    index++;
+                }
+                continue;
+            }
+            int runStart = index;
+            while (index < newEnd && !keptNew.get(index - prefix)) index++;
+            scripts.addAll(runStart, newScripts.subList(runStart, index));
+            fireIntervalAdded(this, runStart, index - 1);
+        }
+        return true;
+    }
+
+    private void replaceRange(List<ScriptMetadata> newScripts, int prefix, int oldEnd, int newEnd) {
+        int oldLength = oldEnd - prefix;
+        int newLength = newEnd - prefix;
+        int common = Math.min(oldLength, newLength);
+
+        scripts = newScripts instanceof RankedList ? newScripts : new ArrayList<>(newScripts);
+        if (newLength > oldLength) {
+            fireIntervalAdded(this, prefix + common, newEnd - 1);
+        } else if (oldLength > newLength) {
+            fireIntervalRemoved(this, prefix + common, oldEnd - 1);
+        }
+        if (common > 0) {
+            fireContentsChanged(this, prefix, prefix + common - 1);
+        }
+    }
+
+    /**
+     * @return the index of the first row {@code match} accepts, or -1; rows of lazily ranked
+     * results are found without ranking them
+     */
+    public int indexOf(Predicate<ScriptMetadata> match) {
+        if (scripts instanceof RankedList) return ((RankedList) scripts).positionOf(match);
+        for (int i = 0; i < scripts.size(); i++) {
+            if (match.test(scripts.get(i))) return i;
+        }
+        return -1;
+    }
+
+    private static boolean isPartlyRanked(List<ScriptMetadata> scripts) {
+        return scripts instanceof RankedList && !((RankedList) scripts).isFullyRanked();
+    }
+
+    // Filenames are unique in practice; the category is compared wherever a key matches
+    private static String keyOf(ScriptMetadata script) {
+        return script.getFilename();
+    }
+}
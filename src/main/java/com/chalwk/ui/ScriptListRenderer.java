@@ -13,27 +13,38 @@ import com.chalwk.model.ScriptMetadata;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.Map;
+import java.util.WeakHashMap;
 
+/**
+ * Paints each script as a title line over a description line. Text is drawn directly rather
+ * than through child labels, and the title and description, already truncated to the list
+ * width, are cached per script, so painting a row in steady state allocates nothing. The
+ * cache is dropped whenever the list width changes.
+ */
 public class ScriptListRenderer extends JPanel implements ListCellRenderer<ScriptMetadata> {
-    private final JLabel titleLabel;
-    private final JLabel descriptionLabel;
-    private boolean isSelected;
+    private static final int PADDING = 10;
+    private static final int LINE_GAP = 5;
+    private static final String ELLIPSIS = "...";
 
-    public ScriptListRenderer() {
-        setLayout(new BorderLayout(5, 5));
-        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        setOpaque(true);
+    private static final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 14);
+    private static final Font DESCRIPTION_FONT = new Font("Segoe UI", Font.PLAIN, 11);
 
-        titleLabel = new JLabel();
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        titleLabel.setForeground(new Color(60, 60, 60));
+    private final Map<ScriptMetadata, RowText> layouts = new WeakHashMap<>();
+    private final Dimension preferredSize = new Dimension();
+    private final Insets listInsets = new Insets(0, 0, 0, 0);
+    private FontMetrics titleMetrics;
+    private FontMetrics descriptionMetrics;
+    private Map<?, ?> textHints;
+    private int layoutWidth = -1;
 
-        descriptionLabel = new JLabel();
-        descriptionLabel.setFont(new Font("Segoe UI", Font.PLAIN, 11));
-        descriptionLabel.setForeground(new Color(120, 120, 120));
+    private RowText layout;
+    private boolean isSelected;
+    private Color titleColor;
+    private Color descriptionColor;
 
-        add(titleLabel, BorderLayout.NORTH);
-        add(descriptionLabel, BorderLayout.CENTER);
+    public ScriptListRenderer() {
+        setOpaque(true);
     }
 
     @Override
@@ -41,37 +52,123 @@ public class ScriptListRenderer extends JPanel implements ListCellRenderer<Scrip
                                                   int index, boolean isSelected, boolean cellHasFocus) {
         this.isSelected = isSelected;
 
-        if (script != null) {
-            titleLabel.setText(script.getTitle());
-            descriptionLabel.setText(script.getShortDescription());
+        if (titleMetrics == null) {
+            titleMetrics = list.getFontMetrics(TITLE_FONT);
+            descriptionMetrics = list.getFontMetrics(DESCRIPTION_FONT);
+            textHints = (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
         }
 
+        list.getInsets(listInsets);
+        int width = list.getWidth() - listInsets.left - listInsets.right - PADDING * 2;
+        if (width != layoutWidth) {
+            layouts.clear();
+            layoutWidth = width;
+        }
+
+        layout = script != null ? layoutFor(script) : null;
+
         // Background and foreground colors based on selection
         if (isSelected) {
-            setBackground(new Color(59, 89, 152));
-            titleLabel.setForeground(Color.WHITE);
-            descriptionLabel.setForeground(new Color(220, 220, 255));
+            setBackground(Palette.PRIMARY);
+            titleColor = Palette.TEXT_ON_PRIMARY;
+            descriptionColor = Palette.TEXT_SECONDARY_ON_PRIMARY;
         } else {
-            setBackground(index % 2 == 0 ? Color.WHITE : new Color(250, 250, 250));
-            titleLabel.setForeground(new Color(60, 60, 60));
-            descriptionLabel.setForeground(new Color(120, 120, 120));
+            setBackground(index % 2 == 0 ? Palette.ROW : Palette.ROW_ALTERNATE);
+            titleColor = Palette.TEXT;
+            descriptionColor = Palette.TEXT_SECONDARY;
         }
 
         return this;
     }
 
     @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g);
+    public Dimension getPreferredSize() {
+        if (layout == null || titleMetrics == null) {
+            preferredSize.setSize(PADDING * 2, PADDING * 2);
+        } else {
+            preferredSize.setSize(Math.max(layout.titleWidth, layout.descriptionWidth) + PADDING * 2,
+                    titleMetrics.getHeight() + LINE_GAP + descriptionMetrics.getHeight() + PADDING * 2);
+        }
+        return preferredSize;
+    }
+
+    /**
+     * Paints the row directly, bypassing {@link JComponent#paint}: a renderer has no border or
+     * children, and the list already hands each cell its own Graphics copy, so hints and state
+     * can be set without restoring them.
+     */
+    @Override
+    public void paint(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setColor(getBackground());
+        g2.fillRect(0, 0, getWidth(), getHeight());
+
+        if (textHints != null) g2.addRenderingHints(textHints);
+
+        if (layout != null) {
+            int y = PADDING + titleMetrics.getAscent();
+            g2.setFont(TITLE_FONT);
+            g2.setColor(titleColor);
+            g2.drawString(layout.title, PADDING, y);
+
+            y += titleMetrics.getDescent() + titleMetrics.getLeading() + LINE_GAP + descriptionMetrics.getAscent();
+            g2.setFont(DESCRIPTION_FONT);
+            g2.setColor(descriptionColor);
+            g2.drawString(layout.description, PADDING, y);
+        }
 
         // Border for selected items
         if (isSelected) {
-            Graphics2D g2 = (Graphics2D) g.create();
             g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2.setColor(new Color(59, 89, 152));
-            g2.setStroke(new BasicStroke(2));
+            g2.setColor(Palette.PRIMARY);
+            g2.setStroke(Palette.SELECTION_STROKE);
             g2.drawRoundRect(1, 1, getWidth() - 3, getHeight() - 3, 6, 6);
-            g2.dispose();
         }
     }
-}
\ No newline at end of file
+
+    private RowText layoutFor(ScriptMetadata script) {
+        RowText cached = layouts.get(script);
+        if (cached == null) {
+            cached = new RowText(script.getTitle(), script.getShortDescription());
+            layouts.put(script, cached);
+        }
+        return cached;
+    }
+
+    private String truncate(String text, FontMetrics metrics, int fullWidth) {
+        if (layoutWidth <= 0 || fullWidth <= layoutWidth) return text;
+
+        // Longest prefix that still fits alongside the ellipsis
+        int available = layoutWidth - metrics.stringWidth(ELLIPSIS);
+        int low = 0;
+        int high = text.length();
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (metrics.stringWidth(text.substring(0, mid)) <= available) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return text.substring(0, low) + ELLIPSIS;
+    }
+
+    /**
+     * A script's title and description, measured and truncated for the current list width.
+     */
+    private final class RowText {
+        private final String title;
+        private final String description;
+        private final int titleWidth;
+        private final int descriptionWidth;
+
+        private RowText(String title, String description) {
+            String fullTitle = title != null ? title : "";
+            String fullDescription = description != null ? description : "";
+            titleWidth = titleMetrics.stringWidth(fullTitle);
+            descriptionWidth = descriptionMetrics.stringWidth(fullDescription);
+            this.title = truncate(fullTitle, titleMetrics, titleWidth);
+            this.description = truncate(fullDescription, descriptionMetrics, descriptionWidth);
+        }
+    }
+}